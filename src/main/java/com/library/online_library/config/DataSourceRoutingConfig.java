@@ -0,0 +1,92 @@
+package com.library.online_library.config;
+
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.library.online_library.datasource.ReadWriteRoutingDataSource;
+import com.library.online_library.datasource.ReadYourWritesGuard;
+import com.library.online_library.datasource.ReplicationStandIn;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+@Configuration
+@ConditionalOnProperty(name = "library.datasource.routing.enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    @Bean(destroyMethod = "close")
+    HikariDataSource primaryDataSource(@Value("${library.datasource.primary.url}") String url,
+            @Value("${library.datasource.primary.pool-size:10}") int poolSize) {
+        return pool("primary", url, "sa", "", poolSize, false);
+    }
+
+    // Admin connections for the replication stand-in, the only writer of the replica
+    @Bean(destroyMethod = "close")
+    HikariDataSource replicationDataSource(@Value("${library.datasource.replication.url}") String url) {
+        return pool("replication", url, "sa", "", 2, false);
+    }
+
+    @Bean
+    ReplicationStandIn replicationStandIn(@Qualifier("primaryDataSource") DataSource primary,
+            @Qualifier("replicationDataSource") DataSource replication,
+            @Value("${library.datasource.replica.username:reader}") String username,
+            @Value("${library.datasource.replica.password:reader}") String password) {
+        ReplicationStandIn standIn = new ReplicationStandIn(primary, replication);
+        standIn.prepareReplica(username, password);
+        return standIn;
+    }
+
+    // Connects as the read-only user, which the stand-in creates first
+    @Bean(destroyMethod = "close")
+    @DependsOn("replicationStandIn")
+    HikariDataSource replicaDataSource(@Value("${library.datasource.replica.url}") String url,
+            @Value("${library.datasource.replica.username:reader}") String username,
+            @Value("${library.datasource.replica.password:reader}") String password,
+            @Value("${library.datasource.replica.pool-size:20}") int poolSize) {
+        return pool("replica", url, username, password, poolSize, true);
+    }
+
+    @Bean
+    ReadYourWritesGuard readYourWritesGuard(@Value("${library.datasource.read-your-writes-ms:2000}") long windowMillis) {
+        return new ReadYourWritesGuard(windowMillis);
+    }
+
+    @Bean
+    ReadWriteRoutingDataSource routingDataSource(@Qualifier("primaryDataSource") DataSource primary,
+            @Qualifier("replicaDataSource") DataSource replica, ReadYourWritesGuard readYourWritesGuard) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(readYourWritesGuard);
+        routing.setTargetDataSources(Map.of(
+                ReadWriteRoutingDataSource.Route.PRIMARY, primary,
+                ReadWriteRoutingDataSource.Route.REPLICA, replica));
+        routing.setDefaultTargetDataSource(primary);
+        return routing;
+    }
+
+    // Lazy proxy: the route is picked on first use, once the transaction is marked read-only or not
+    @Bean
+    @Primary
+    DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    private static HikariDataSource pool(String name, String url, String username, String password, int poolSize,
+            boolean readOnly) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(name);
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password);
+        config.setMaximumPoolSize(poolSize);
+        config.setReadOnly(readOnly);
+        return new HikariDataSource(config);
+    }
+}
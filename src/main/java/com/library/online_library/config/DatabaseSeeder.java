@@ -2,39 +2,72 @@ package com.library.online_library.config;
 
 import java.util.List;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.library.online_library.index.BookChangeEvent;
 import com.library.online_library.model.Book;
 import com.library.online_library.repository.BookRepository;
 
 @Configuration
 public class DatabaseSeeder {
 
+    private static final Logger log = LoggerFactory.getLogger(DatabaseSeeder.class);
+
+    // The synthetic profile fills the catalog instead (see SyntheticCatalogLoader)
     @Bean
-    CommandLineRunner initDatabase(BookRepository bookRepository) {
+    @Profile("!synthetic")
+    CommandLineRunner initDatabase(BookRepository bookRepository, ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            @Value("${library.seed.background:false}") boolean background) {
+        // The created events are published before the rows commit, like BookService writes, so the book counter
+        // never counts a seeded row twice
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
         return args -> {
-            if (bookRepository.count() == 0) { // Avoid dupplicate books
-                bookRepository.saveAll(List.of(
-                        new Book("The AI Revolution", "Jane Smith", "9780134685991", 2022, "An insightful book about AI."),
-                        new Book("Spring Boot in Action", "Craig Walls", "9781617292545", 2019, "A practical guide to Spring Boot."),
-                        new Book("Clean Code", "Robert C. Martin", "9780132350884", 2008, "A must-read book for software engineers."),
-                        new Book("Deep Learning", "Ian Goodfellow", "9780262035613", 2016, "A comprehensive book on deep learning."),
-                        new Book("The Pragmatic Programmer", "Andrew Hunt", "9780201616224", 1999, "A book full of programming wisdom."),
-                        new Book("Introduction to Algorithms", "Thomas H. Cormen", "9780262033848", 2009, "A foundational book on algorithms."),
-                        new Book("You Don't Know JS", "Kyle Simpson", "9781491904244", 2015, "A deep dive into JavaScript."),
-                        new Book("Design Patterns", "Erich Gamma", "9780201633610", 1994, "A classic book on software design patterns."),
-                        new Book("Java Concurrency in Practice", "Brian Goetz", "9780321349606", 2006, "A detailed book on Java concurrency."),
-                        new Book("The Mythical Man-Month", "Frederick P. Brooks Jr.", "9780201835954", 1975, "Essays on software engineering."),
-                        new Book("Cracking the Coding Interview", "Gayle Laakmann McDowell", "9780984782857", 2015, "A guide to technical interviews."),
-                        new Book("Eloquent JavaScript", "Marijn Haverbeke", "9781593279509", 2018, "A modern introduction to JavaScript."),
-                        new Book("Refactoring", "Martin Fowler", "9780134757599", 2018, "Improving the design of existing code."),
-                        new Book("Effective Java", "Joshua Bloch", "9780134685991", 2018, "Best practices for writing Java code."),
-                        new Book("The Phoenix Project", "Gene Kim", "9780988262591", 2013, "A novel about DevOps and IT management.")
-                ));
-                System.out.println("Database seeded with default books!");
+            if (background) {
+                // Off the startup path; the seeded books reach the indexes through change events
+                Thread seeder = new Thread(() -> {
+                    transaction.executeWithoutResult(status -> seed(bookRepository, eventPublisher));
+                    eventPublisher.publishEvent(new SampleDataSeededEvent());
+                }, "database-seeder");
+                seeder.setDaemon(true);
+                seeder.start();
+            } else {
+                transaction.executeWithoutResult(status -> seed(bookRepository, eventPublisher));
+                eventPublisher.publishEvent(new SampleDataSeededEvent());
             }
         };
     }
+
+    private static void seed(BookRepository bookRepository, ApplicationEventPublisher eventPublisher) {
+        if (bookRepository.count() == 0) { // Avoid dupplicate books
+            List<Book> savedBooks = bookRepository.saveAll(List.of(
+                    new Book("The AI Revolution", "Jane Smith", "9798350614244", 2022, "An insightful book about AI."),
+                    new Book("Spring Boot in Action", "Craig Walls", "9781617292545", 2019, "A practical guide to Spring Boot."),
+                    new Book("Clean Code", "Robert C. Martin", "9780132350884", 2008, "A must-read book for software engineers."),
+                    new Book("Deep Learning", "Ian Goodfellow", "9780262035613", 2016, "A comprehensive book on deep learning."),
+                    new Book("The Pragmatic Programmer", "Andrew Hunt", "9780201616224", 1999, "A book full of programming wisdom."),
+                    new Book("Introduction to Algorithms", "Thomas H. Cormen", "9780262033848", 2009, "A foundational book on algorithms."),
+                    new Book("You Don't Know JS", "Kyle Simpson", "9781491904244", 2015, "A deep dive into JavaScript."),
+                    new Book("Design Patterns", "Erich Gamma", "9780201633610", 1994, "A classic book on software design patterns."),
+                    new Book("Java Concurrency in Practice", "Brian Goetz", "9780321349606", 2006, "A detailed book on Java concurrency."),
+                    new Book("The Mythical Man-Month", "Frederick P. Brooks Jr.", "9780201835954", 1975, "Essays on software engineering."),
+                    new Book("Cracking the Coding Interview", "Gayle Laakmann McDowell", "9780984782857", 2015, "A guide to technical interviews."),
+                    new Book("Eloquent JavaScript", "Marijn Haverbeke", "9781593279509", 2018, "A modern introduction to JavaScript."),
+                    new Book("Refactoring", "Martin Fowler", "9780134757599", 2018, "Improving the design of existing code."),
+                    new Book("Effective Java", "Joshua Bloch", "9780134685991", 2018, "Best practices for writing Java code."),
+                    new Book("The Phoenix Project", "Gene Kim", "9780988262591", 2013, "A novel about DevOps and IT management.")
+            ));
+            savedBooks.forEach(book -> eventPublisher.publishEvent(BookChangeEvent.created(book)));
+            log.info("Database seeded with {} default books", savedBooks.size());
+        }
+    }
 }
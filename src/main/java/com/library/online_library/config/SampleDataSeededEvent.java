@@ -0,0 +1,10 @@
+package com.library.online_library.config;
+
+/**
+ * Published by {@link DatabaseSeeder} once its transaction has committed,
+ * whether or not any books had to be inserted. With
+ * {@code library.seed.background=true} this is the only signal that the
+ * sample catalog is in place.
+ */
+public record SampleDataSeededEvent() {
+}
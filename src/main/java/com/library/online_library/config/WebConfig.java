@@ -0,0 +1,49 @@
+package com.library.online_library.config;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.library.online_library.limiter.AdaptiveConcurrencyLimiter;
+import com.library.online_library.limiter.ConcurrencyLimitInterceptor;
+import com.library.online_library.limiter.RequestClass;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private static final String PREFIX = "library.limiter.";
+
+    private final Environment environment;
+
+    public WebConfig(Environment environment) {
+        this.environment = environment;
+    }
+
+    private Map<RequestClass, AdaptiveConcurrencyLimiter> concurrencyLimiters() {
+        Map<RequestClass, AdaptiveConcurrencyLimiter> limiters = new EnumMap<>(RequestClass.class);
+        double backoffRatio = environment.getProperty(PREFIX + "backoff-ratio", Double.class, 0.9);
+        for (RequestClass requestClass : RequestClass.values()) {
+            String key = PREFIX + requestClass.propertyKey() + ".";
+            limiters.put(requestClass, new AdaptiveConcurrencyLimiter(
+                    requestClass.propertyKey(),
+                    environment.getProperty(key + "initial-limit", Integer.class, requestClass.getInitialLimit()),
+                    environment.getProperty(key + "min-limit", Integer.class, 1),
+                    environment.getProperty(key + "max-limit", Integer.class, requestClass.getMaxLimit()),
+                    environment.getProperty(key + "latency-threshold-ms", Long.class, requestClass.getLatencyThresholdMillis()),
+                    backoffRatio));
+        }
+        return limiters;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (environment.getProperty(PREFIX + "enabled", Boolean.class, true)) {
+            registry.addInterceptor(new ConcurrencyLimitInterceptor(concurrencyLimiters()))
+                    .addPathPatterns("/books", "/books/**");
+        }
+    }
+}
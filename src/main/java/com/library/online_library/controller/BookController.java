@@ -2,11 +2,11 @@ package com.library.online_library.controller;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -15,14 +15,25 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.library.online_library.exception.AiApiException;
+import com.library.online_library.exception.InvalidRequestException;
 import com.library.online_library.exception.ResourceNotFoundException;
+import com.library.online_library.limiter.ConcurrencyLimited;
+import com.library.online_library.limiter.RequestClass;
 import com.library.online_library.model.Book;
+import com.library.online_library.model.BookFields;
+import com.library.online_library.search.Facets;
+import com.library.online_library.search.SearchCacheStats;
+import com.library.online_library.search.Suggestion;
 import com.library.online_library.service.BookService;
+import com.library.online_library.service.ChangeBatch;
+import com.library.online_library.service.ChangeFeedService;
 import com.library.online_library.serviceAI.AiService;
 
 import io.swagger.v3.oas.annotations.OpenAPIDefinition;
@@ -37,15 +48,21 @@ import jakarta.validation.Valid;
 @CrossOrigin(origins = "http://localhost:3000")
 @OpenAPIDefinition(info = @Info(title = "Library API", version = "1.0", description = "API for managing books"))
 @RestController
-@RequestMapping("/books")
+@RequestMapping(value = "/books", produces = {
+        MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, BookController.APPLICATION_SMILE_VALUE })
 public class BookController {
 
+    // Binary alternatives to JSON for service-to-service clients, chosen through the Accept header
+    static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
     private final BookService bookService;
     private final AiService aiService;
+    private final ChangeFeedService changeFeedService;
 
-    public BookController(BookService bookService, AiService aiService) {
+    public BookController(BookService bookService, AiService aiService, ChangeFeedService changeFeedService) {
         this.bookService = bookService;
         this.aiService = aiService;
+        this.changeFeedService = changeFeedService;
     }
 
     @Operation(summary = "Create a new book", description = "Adds a new book to the library with validation.")
@@ -58,25 +75,62 @@ public class BookController {
         return ResponseEntity.ok(bookService.createBook(book));
     }
 
-    @Operation(summary = "Get all books with pagination", description = "Returns a paginated list of books.")
-    @ApiResponse(responseCode = "200", description = "List of books retrieved successfully")
+    @Operation(summary = "Get all books with pagination", description = "Returns a paginated list of books, "
+            + "optionally restricted to a publication-year range and ordered by publication year. "
+            + "With includeTotal=false a slice without total counts is returned. "
+            + "With fields=, only those columns are selected and a compact page envelope is returned.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "List of books retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid year range, sort or fields")
+    })
+    @ConcurrencyLimited(RequestClass.LIST)
     @GetMapping
-    public ResponseEntity<Page<Book>> getAllBooks(
+    public ResponseEntity<?> getAllBooks(
             @Parameter(description = "Page number (0-based index)", example = "0") @RequestParam(defaultValue = "0") int page,
-            @Parameter(description = "Number of books per page", example = "10") @RequestParam(defaultValue = "10") int size) {
+            @Parameter(description = "Number of books per page", example = "10") @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Earliest publication year (inclusive)", example = "2000") @RequestParam(required = false) Integer minYear,
+            @Parameter(description = "Latest publication year (inclusive)", example = "2020") @RequestParam(required = false) Integer maxYear,
+            @Parameter(description = "Sort order: publicationYear or publicationYear,desc", example = "publicationYear,desc") @RequestParam(required = false) String sort,
+            @Parameter(description = "Set to false to skip totalElements/totalPages and only report whether more pages exist") @RequestParam(defaultValue = "true") boolean includeTotal,
+            @Parameter(description = "Comma-separated fields to return, e.g. id,title; returns all fields when absent", example = "id,title") @RequestParam(required = false) String fields) {
 
         Pageable pageable = PageRequest.of(page, size);
+        Boolean descending = parseYearSort(sort);
+        List<String> projection = BookFields.parse(fields);
+        if (minYear != null || maxYear != null || descending != null) {
+            checkYearRange(minYear, maxYear);
+            if (projection != null) {
+                return ResponseEntity.ok(bookService.getBookFieldsByYear(projection, minYear, maxYear,
+                        Boolean.TRUE.equals(descending), pageable));
+            }
+            return ResponseEntity.ok(bookService.getBooksByYear(minYear, maxYear, Boolean.TRUE.equals(descending), pageable));
+        }
+        if (projection != null) {
+            return ResponseEntity.ok(bookService.getAllBookFields(projection, pageable, includeTotal));
+        }
+        if (!includeTotal) {
+            return ResponseEntity.ok(bookService.getBooksSlice(pageable));
+        }
         Page<Book> books = bookService.getAllBooks(pageable);
         return ResponseEntity.ok(books);
     }
 
-    @Operation(summary = "Get a book by ID", description = "Finds a book by its unique ID.")
+    @Operation(summary = "Get a book by ID", description = "Finds a book by its unique ID, optionally returning only the requested fields.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Book found"),
+        @ApiResponse(responseCode = "400", description = "Unknown field"),
         @ApiResponse(responseCode = "404", description = "Book not found")
     })
     @GetMapping("/{id}")
-    public ResponseEntity<Book> getBookById(@PathVariable Long id) {
+    public ResponseEntity<?> getBookById(
+            @PathVariable Long id,
+            @Parameter(description = "Comma-separated fields to return, e.g. id,title; returns all fields when absent", example = "id,title") @RequestParam(required = false) String fields) {
+        List<String> projection = BookFields.parse(fields);
+        if (projection != null) {
+            Map<String, Object> values = bookService.getBookFieldsById(id, projection)
+                    .orElseThrow(() -> new ResourceNotFoundException("Book not found with ID: " + id));
+            return ResponseEntity.ok(values);
+        }
         Book book = bookService.getBookById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Book not found with ID: " + id));
         return ResponseEntity.ok(book);
@@ -90,20 +144,9 @@ public class BookController {
     })
     @PutMapping("/{id}")
     public ResponseEntity<?> updateBook(@PathVariable Long id, @Valid @RequestBody Book updatedBook) {
-        Optional<Book> existingBookOptional = bookService.getBookById(id);
-        
-        if (existingBookOptional.isEmpty()) {
-            throw new ResourceNotFoundException("Book not found with ID: " + id);
-        }
-
-        Book existingBook = existingBookOptional.get();
-        existingBook.setTitle(updatedBook.getTitle());
-        existingBook.setAuthor(updatedBook.getAuthor());
-        existingBook.setIsbn(updatedBook.getIsbn());
-        existingBook.setPublicationYear(updatedBook.getPublicationYear());
-        existingBook.setDescription(updatedBook.getDescription());
-
-        Book savedBook = bookService.saveBook(existingBook);
+        // Read and write in one transaction, so the current row comes from the primary database
+        Book savedBook = bookService.updateBook(id, updatedBook)
+                .orElseThrow(() -> new ResourceNotFoundException("Book not found with ID: " + id));
         return ResponseEntity.ok(savedBook);
     }
 
@@ -114,29 +157,138 @@ public class BookController {
     })
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteBook(@PathVariable Long id) {
-        Book book = bookService.getBookById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Book not found with ID: " + id));
-
-        bookService.deleteBook(id);
+        if (!bookService.deleteBook(id)) {
+            throw new ResourceNotFoundException("Book not found with ID: " + id);
+        }
         return ResponseEntity.noContent().build();
     }
 
-    @Operation(summary = "Search books", description = "Search books by title and/or author.")
-    @ApiResponse(responseCode = "200", description = "Books found")
+    @Operation(summary = "Search books", description = "Search books by title and/or author (optionally typo-tolerant), "
+            + "or rank them by relevance to a free-text query over title, author and description.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Books found"),
+        @ApiResponse(responseCode = "400", description = "Invalid year range, sort or fields")
+    })
+    @ConcurrencyLimited(RequestClass.SEARCH)
     @GetMapping("/search")
-    public ResponseEntity<List<Book>> searchBooks(
+    public ResponseEntity<?> searchBooks(
             @RequestParam(required = false) String title,
-            @RequestParam(required = false) String author) {
-        List<Book> results = bookService.searchBooks(title, author);
+            @RequestParam(required = false) String author,
+            @Parameter(description = "Free-text query; when present, results are ranked by relevance (BM25)") @RequestParam(required = false) String q,
+            @Parameter(description = "Match title and author words within a small edit distance") @RequestParam(defaultValue = "false") boolean fuzzy,
+            @Parameter(description = "Maximum number of ranked or fuzzy results", example = "20") @RequestParam(defaultValue = "20") int limit,
+            @Parameter(description = "Earliest publication year (inclusive)", example = "2000") @RequestParam(required = false) Integer minYear,
+            @Parameter(description = "Latest publication year (inclusive)", example = "2020") @RequestParam(required = false) Integer maxYear,
+            @Parameter(description = "Sort order: publicationYear or publicationYear,desc; relevance order is kept when absent") @RequestParam(required = false) String sort,
+            @Parameter(description = "Comma-separated fields to return, e.g. id,title; returns all fields when absent", example = "id,title") @RequestParam(required = false) String fields) {
+        Boolean descending = parseYearSort(sort);
+        List<String> projection = BookFields.parse(fields);
+        checkYearRange(minYear, maxYear);
+        boolean ranked = q != null && !q.isBlank();
+        // Ranked and fuzzy searches apply the year range before their limit and keep relevance
+        // order unless a year sort is asked for; title/author matches are narrowed afterwards
+        boolean byYear = ranked || fuzzy ? descending != null : minYear != null || maxYear != null || descending != null;
+        if (projection != null) {
+            // Only ids come from the search; the requested columns are then selected without loading entities
+            List<Long> ids;
+            if (ranked) {
+                ids = bookService.rankedSearchIds(q, limit, minYear, maxYear);
+            } else if (fuzzy) {
+                ids = bookService.fuzzySearchIds(title, author, limit, minYear, maxYear);
+            } else {
+                ids = bookService.searchBookIds(title, author);
+            }
+            if (byYear) {
+                ids = bookService.filterIdsByYear(ids, minYear, maxYear, Boolean.TRUE.equals(descending));
+            }
+            return ResponseEntity.ok(bookService.getBookFieldsByIds(projection, ids));
+        }
+        List<Book> results;
+        if (ranked) {
+            results = bookService.rankedSearch(q, limit, minYear, maxYear);
+        } else if (fuzzy) {
+            results = bookService.fuzzySearch(title, author, limit, minYear, maxYear);
+        } else {
+            results = bookService.searchBooks(title, author);
+        }
+        if (byYear) {
+            results = bookService.filterByYear(results, minYear, maxYear, Boolean.TRUE.equals(descending));
+        }
         return ResponseEntity.ok(results);
     }
 
+    @Operation(summary = "Get search cache statistics", description = "Hit rate, entry count and estimated memory "
+            + "of the title/author search-result cache.")
+    @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully")
+    @GetMapping("/search/cache-stats")
+    public ResponseEntity<SearchCacheStats> getSearchCacheStats() {
+        return ResponseEntity.ok(bookService.getSearchCacheStats());
+    }
+
+    @Operation(summary = "Get changes since a sequence number", description = "Returns creates, updates and deletes "
+            + "written after the given sequence number, oldest first, for incremental sync.")
+    @ApiResponse(responseCode = "200", description = "Changes retrieved successfully")
+    @GetMapping("/changes")
+    public ResponseEntity<ChangeBatch> getChanges(
+            @Parameter(description = "Last sequence number already seen (0 for the full log)", example = "0") @RequestParam(defaultValue = "0") long since,
+            @Parameter(description = "Maximum number of changes to return", example = "100") @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(changeFeedService.getChangesSince(since, limit));
+    }
+
+    @Operation(summary = "Stream changes", description = "Server-sent events: the changes after the given sequence number, "
+            + "then each new change as it is written. Reconnecting clients resume from Last-Event-ID.")
+    @ApiResponse(responseCode = "200", description = "Change stream opened")
+    @GetMapping(value = "/changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(
+            @Parameter(description = "Last sequence number already seen", example = "0") @RequestParam(defaultValue = "0") long since,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return changeFeedService.subscribe(lastEventId != null ? lastEventId : since);
+    }
+
+    @Operation(summary = "Suggest titles and authors", description = "Autocomplete for the search box: titles and authors "
+            + "starting with the given prefix, most common first.")
+    @ApiResponse(responseCode = "200", description = "Suggestions found")
+    @GetMapping("/suggest")
+    public ResponseEntity<List<Suggestion>> suggest(
+            @Parameter(description = "Prefix typed so far (case and accent insensitive)", example = "clean c") @RequestParam String prefix,
+            @Parameter(description = "Maximum number of suggestions", example = "10") @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(bookService.suggest(prefix, limit));
+    }
+
+    @Operation(summary = "Get facet counts", description = "Book counts by author and by publication decade, "
+            + "for the whole catalog or for the books matching a free-text query.")
+    @ApiResponse(responseCode = "200", description = "Facet counts computed")
+    @ConcurrencyLimited(RequestClass.SEARCH)
+    @GetMapping("/facets")
+    public ResponseEntity<Facets> getFacets(
+            @Parameter(description = "Optional free-text query to scope the counts to the books matching it") @RequestParam(required = false) String q,
+            @Parameter(description = "Maximum number of authors to return", example = "10") @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(bookService.getFacets(q, limit));
+    }
+
+    @Operation(summary = "Find similar books", description = "Returns books with similar title, author and description, "
+            + "most similar first.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Similar books found"),
+        @ApiResponse(responseCode = "404", description = "Book not found")
+    })
+    @ConcurrencyLimited(RequestClass.SEARCH)
+    @GetMapping("/{id}/similar")
+    public ResponseEntity<List<Book>> getSimilarBooks(
+            @PathVariable Long id,
+            @Parameter(description = "Maximum number of similar books", example = "5") @RequestParam(defaultValue = "5") int limit) {
+        bookService.getBookById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Book not found with ID: " + id));
+        return ResponseEntity.ok(bookService.findSimilarBooks(id, limit));
+    }
+
     @Operation(summary = "Generate AI insights for a book", description = "Returns an AI-generated insight for a given book ID.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "AI insights generated successfully"),
         @ApiResponse(responseCode = "404", description = "Book not found"),
-        @ApiResponse(responseCode = "503", description = "AI service unavailable")
+        @ApiResponse(responseCode = "503", description = "AI service unavailable or overloaded")
     })
+    @ConcurrencyLimited(RequestClass.AI)
     @GetMapping("/{id}/ai-insights")
     public ResponseEntity<Map<String, Object>> getAiInsights(@PathVariable Long id) {
         Book foundBook = bookService.getBookById(id)
@@ -157,5 +309,26 @@ public class BookController {
             throw new AiApiException("Failed to generate AI insights. Please try again later.");
         }
     }
-    
+
+    // Only publication-year ordering is index-backed; null means no explicit sort
+    private static Boolean parseYearSort(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return null;
+        }
+        String[] parts = sort.split(",");
+        if (!parts[0].trim().equals("publicationYear") || parts.length > 2) {
+            throw new InvalidRequestException("Unsupported sort: " + sort + " (only publicationYear is sortable)");
+        }
+        String direction = parts.length == 2 ? parts[1].trim().toLowerCase() : "asc";
+        if (!direction.equals("asc") && !direction.equals("desc")) {
+            throw new InvalidRequestException("Unsupported sort direction: " + parts[1].trim());
+        }
+        return direction.equals("desc");
+    }
+
+    private static void checkYearRange(Integer minYear, Integer maxYear) {
+        if (minYear != null && maxYear != null && minYear > maxYear) {
+            throw new InvalidRequestException("minYear must not be greater than maxYear");
+        }
+    }
 }
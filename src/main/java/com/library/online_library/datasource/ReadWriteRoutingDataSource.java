@@ -0,0 +1,35 @@
+package com.library.online_library.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends connections for read-only transactions to the replica pool and
+ * everything else to the primary. Must sit behind a
+ * {@code LazyConnectionDataSourceProxy}, so the route is chosen when the first
+ * statement runs, after the transaction's read-only flag is known.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final ReadYourWritesGuard readYourWritesGuard;
+
+    public ReadWriteRoutingDataSource(ReadYourWritesGuard readYourWritesGuard) {
+        this.readYourWritesGuard = readYourWritesGuard;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return routesToReplica() ? Route.REPLICA : Route.PRIMARY;
+    }
+
+    // Whether the current transaction reads from the replica, which may not have every committed write yet
+    public boolean routesToReplica() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !readYourWritesGuard.mustReadFromPrimary();
+    }
+}
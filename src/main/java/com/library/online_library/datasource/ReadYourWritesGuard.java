@@ -0,0 +1,72 @@
+package com.library.online_library.datasource;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.library.online_library.index.BookChangeEvent;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Stale-read guard for replica routing: for a short window after a client
+ * writes, that client's reads go to the primary, so it always sees its own
+ * changes even while the replica lags. Clients are identified by the
+ * {@code X-Client-Id} header, falling back to the remote address.
+ */
+public class ReadYourWritesGuard {
+
+    static final String CLIENT_ID_HEADER = "X-Client-Id";
+    private static final int PURGE_THRESHOLD = 10_000;
+
+    private final long windowNanos;
+    private final Map<String, Long> lastWriteByClient = new ConcurrentHashMap<>();
+
+    public ReadYourWritesGuard(long windowMillis) {
+        this.windowNanos = windowMillis * 1_000_000;
+    }
+
+    // Published on the request thread, so the writing client is the current one
+    @EventListener
+    public void onBookChanged(BookChangeEvent event) {
+        String client = currentClient();
+        if (client == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (lastWriteByClient.size() > PURGE_THRESHOLD) {
+            lastWriteByClient.values().removeIf(writtenAt -> now - writtenAt > windowNanos);
+        }
+        lastWriteByClient.put(client, now);
+    }
+
+    public boolean mustReadFromPrimary() {
+        String client = currentClient();
+        if (client == null) {
+            return false;
+        }
+        Long writtenAt = lastWriteByClient.get(client);
+        if (writtenAt == null) {
+            return false;
+        }
+        if (System.nanoTime() - writtenAt > windowNanos) {
+            lastWriteByClient.remove(client, writtenAt);
+            return false;
+        }
+        return true;
+    }
+
+    private static String currentClient() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return null;
+        }
+        HttpServletRequest request = servletAttributes.getRequest();
+        String clientId = request.getHeader(CLIENT_ID_HEADER);
+        return clientId != null && !clientId.isBlank() ? clientId : request.getRemoteAddr();
+    }
+}
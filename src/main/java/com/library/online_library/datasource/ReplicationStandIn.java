@@ -0,0 +1,188 @@
+package com.library.online_library.datasource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongFunction;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Local stand-in for database replication between two H2 instances. After the
+ * context starts it copies the primary into the replica, then on a fixed delay
+ * replays the primary's {@code book_changes} log: changed books are re-read
+ * from the primary and merged into the replica, deleted ones removed. The
+ * replica therefore lags by up to one interval, like an asynchronous replica.
+ */
+public class ReplicationStandIn {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicationStandIn.class);
+    private static final int BATCH_SIZE = 5000;
+    private static final String BOOK_COLUMNS = "id, title, author, isbn, publication_year, description, version";
+    private static final String CHANGE_COLUMNS = "seq, book_id, operation, version, timestamp";
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final DataSource replicaDataSource;
+    private long appliedSeq = -1;
+    private ChangeLogReads changeLogReads;
+
+    // The replica data source must be allowed to write; the application reads through the user from prepareReplica
+    public ReplicationStandIn(DataSource primaryDataSource, DataSource replicaDataSource) {
+        this.primary = new JdbcTemplate(primaryDataSource);
+        this.replica = new JdbcTemplate(replicaDataSource);
+        this.replicaDataSource = replicaDataSource;
+    }
+
+    /**
+     * Writes can commit out of seq order, so change log reads go through
+     * whoever knows which seqs are still in flight (the change feed).
+     */
+    public synchronized void setChangeLogReads(ChangeLogReads changeLogReads) {
+        this.changeLogReads = changeLogReads;
+    }
+
+    /**
+     * Creates the replica schema and a user that may only read it, so a write
+     * routed to the replica by mistake fails instead of diverging from the
+     * primary.
+     */
+    public synchronized void prepareReplica(String readUser, String readPassword) {
+        if (!readUser.matches("[A-Za-z_][A-Za-z0-9_]*")) {
+            throw new IllegalArgumentException("Invalid replica user name: " + readUser);
+        }
+        new ResourceDatabasePopulator(new ClassPathResource("db/schema.sql")).execute(replicaDataSource);
+        replica.execute("CREATE USER IF NOT EXISTS " + readUser + " PASSWORD '" + readPassword.replace("'", "''") + "'");
+        replica.execute("GRANT SELECT ON books, book_changes TO " + readUser);
+    }
+
+    // Before the runners and the index rebuild, which already read through the replica
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ContextRefreshedEvent.class)
+    public synchronized void initialize() {
+        fullSync();
+    }
+
+    /**
+     * Replaces the replica contents with a copy of the primary. Also needed
+     * after bulk loads that bypass the change log.
+     */
+    public synchronized void fullSync() {
+        long start = System.nanoTime();
+        // Changes logged while copying are replayed afterwards; replaying is idempotent
+        Long maxSeq = readChangeLog(visibleThrough -> primary.queryForObject(
+                "SELECT COALESCE(MAX(seq), 0) FROM book_changes WHERE seq <= ?", Long.class, visibleThrough));
+        replica.update("DELETE FROM books");
+        replica.update("DELETE FROM book_changes");
+        long books = copy("books", "id", BOOK_COLUMNS);
+        copy("book_changes", "seq", CHANGE_COLUMNS);
+        appliedSeq = maxSeq;
+        log.info("Replica synchronized: {} books in {} ms", books, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Scheduled(fixedDelayString = "${library.datasource.replication.interval-ms:200}")
+    public synchronized void replicate() {
+        if (appliedSeq < 0) {
+            return;
+        }
+        List<Map<String, Object>> changes;
+        do {
+            long after = appliedSeq;
+            changes = readChangeLog(visibleThrough -> primary.queryForList("SELECT " + CHANGE_COLUMNS
+                    + " FROM book_changes WHERE seq > ? AND seq <= ? ORDER BY seq LIMIT " + BATCH_SIZE,
+                    after, visibleThrough));
+            if (changes.isEmpty()) {
+                return;
+            }
+            Set<Long> bookIds = new LinkedHashSet<>();
+            for (Map<String, Object> change : changes) {
+                bookIds.add(((Number) change.get("book_id")).longValue());
+            }
+            applyBooks(bookIds);
+            merge("book_changes", "seq", CHANGE_COLUMNS, changes);
+            appliedSeq = ((Number) changes.get(changes.size() - 1).get("seq")).longValue();
+        } while (changes.size() == BATCH_SIZE);
+    }
+
+    public synchronized long getAppliedSeq() {
+        return appliedSeq;
+    }
+
+    private <T> T readChangeLog(LongFunction<T> read) {
+        return changeLogReads != null ? changeLogReads.read(read) : read.apply(Long.MAX_VALUE);
+    }
+
+    // The primary's current row wins; books no longer there were deleted
+    private void applyBooks(Set<Long> bookIds) {
+        String placeholders = String.join(",", Collections.nCopies(bookIds.size(), "?"));
+        List<Map<String, Object>> rows = primary.queryForList(
+                "SELECT " + BOOK_COLUMNS + " FROM books WHERE id IN (" + placeholders + ")", bookIds.toArray());
+        Set<Long> deleted = new HashSet<>(bookIds);
+        for (Map<String, Object> row : rows) {
+            deleted.remove(((Number) row.get("id")).longValue());
+        }
+        merge("books", "id", BOOK_COLUMNS, rows);
+        if (!deleted.isEmpty()) {
+            List<Object[]> arguments = new ArrayList<>(deleted.size());
+            for (Long id : deleted) {
+                arguments.add(new Object[] {id});
+            }
+            replica.batchUpdate("DELETE FROM books WHERE id = ?", arguments);
+        }
+    }
+
+    private long copy(String table, String key, String columns) {
+        long copied = 0;
+        long lastKey = -1;
+        List<Map<String, Object>> rows;
+        do {
+            rows = primary.queryForList("SELECT " + columns + " FROM " + table + " WHERE " + key + " > ? ORDER BY "
+                    + key + " LIMIT " + BATCH_SIZE, lastKey);
+            merge(table, key, columns, rows);
+            if (!rows.isEmpty()) {
+                lastKey = ((Number) rows.get(rows.size() - 1).get(key)).longValue();
+                copied += rows.size();
+            }
+        } while (rows.size() == BATCH_SIZE);
+        return copied;
+    }
+
+    private void merge(String table, String key, String columns, List<Map<String, Object>> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        String[] names = columns.split(",\\s*");
+        String placeholders = String.join(",", Collections.nCopies(names.length, "?"));
+        List<Object[]> arguments = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            Object[] values = new Object[names.length];
+            for (int i = 0; i < names.length; i++) {
+                values[i] = row.get(names[i]);
+            }
+            arguments.add(values);
+        }
+        replica.batchUpdate("MERGE INTO " + table + " (" + columns + ") KEY (" + key + ") VALUES (" + placeholders + ")",
+                arguments);
+    }
+
+    /** Runs a read of {@code book_changes} given the highest seq it may consume. */
+    public interface ChangeLogReads {
+
+        <T> T read(LongFunction<T> read);
+    }
+}
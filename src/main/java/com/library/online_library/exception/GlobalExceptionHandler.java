@@ -3,8 +3,10 @@
     import java.util.HashMap;
     import java.util.Map;
 
+    import org.springframework.http.HttpHeaders;
     import org.springframework.http.HttpStatus;
     import org.springframework.http.ResponseEntity;
+    import org.springframework.orm.ObjectOptimisticLockingFailureException;
     import org.springframework.validation.FieldError;
     import org.springframework.web.bind.MethodArgumentNotValidException;
     import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -51,7 +53,39 @@
             return new ResponseEntity<>(response, HttpStatus.SERVICE_UNAVAILABLE);
         }
 
-        // 4. Handle generic exceptions (500 internal server error)
+        //  4. Handle load shedding (503 with a retry hint)
+        @ExceptionHandler(ServiceOverloadedException.class)
+        @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+        public ResponseEntity<Map<String, String>> handleServiceOverloadedException(ServiceOverloadedException ex) {
+            Map<String, String> response = new HashMap<>();
+            response.put("error", "Service Overloaded");
+            response.put("message", ex.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(response);
+        }
+
+        //  5. Handle invalid query parameters (400 bad request)
+        @ExceptionHandler(InvalidRequestException.class)
+        @ResponseStatus(HttpStatus.BAD_REQUEST)
+        public ResponseEntity<Map<String, String>> handleInvalidRequestException(InvalidRequestException ex) {
+            Map<String, String> response = new HashMap<>();
+            response.put("error", "Bad Request");
+            response.put("message", ex.getMessage());
+            return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+        }
+
+        //  6. Handle concurrent updates of the same book (409 conflict)
+        @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+        @ResponseStatus(HttpStatus.CONFLICT)
+        public ResponseEntity<Map<String, String>> handleOptimisticLockingFailure(ObjectOptimisticLockingFailureException ex) {
+            Map<String, String> response = new HashMap<>();
+            response.put("error", "Conflict");
+            response.put("message", "The book was modified concurrently. Please reload and try again.");
+            return new ResponseEntity<>(response, HttpStatus.CONFLICT);
+        }
+
+        // 7. Handle generic exceptions (500 internal server error)
         @ExceptionHandler(Exception.class)
         @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
         public ResponseEntity<Map<String, String>> handleGenericException(Exception ex) {
@@ -0,0 +1,8 @@
+package com.library.online_library.exception;
+
+public class InvalidRequestException extends RuntimeException {
+
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
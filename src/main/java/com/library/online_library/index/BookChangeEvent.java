@@ -0,0 +1,31 @@
+package com.library.online_library.index;
+
+import com.library.online_library.model.Book;
+
+/**
+ * Published by {@code BookService} for every write, inside the write
+ * transaction, so that the in-memory indexes can follow the catalog without
+ * re-reading it. Listeners that must only see committed writes use
+ * {@code @TransactionalEventListener}. {@code book} is the saved state, or
+ * {@code null} for deletions.
+ */
+public record BookChangeEvent(Type type, Long bookId, Book book) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public static BookChangeEvent created(Book book) {
+        return new BookChangeEvent(Type.CREATED, book.getId(), book);
+    }
+
+    public static BookChangeEvent updated(Book book) {
+        return new BookChangeEvent(Type.UPDATED, book.getId(), book);
+    }
+
+    public static BookChangeEvent deleted(Long bookId) {
+        return new BookChangeEvent(Type.DELETED, bookId, null);
+    }
+}
@@ -0,0 +1,104 @@
+package com.library.online_library.index;
+
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.library.online_library.repository.BookRepository;
+
+/**
+ * In-memory total number of books, so paginated listings do not need a
+ * {@code SELECT COUNT(*)} per request. The counter is loaded from the database
+ * once the application is up, adjusted on every committed create and delete,
+ * and periodically reconciled to correct any drift (for example rows changed
+ * outside the service). Writes are counted as started inside their transaction
+ * and as finished once it completes; a reconciliation only takes the database
+ * count when no write was in flight before, during or after the query.
+ */
+@Component
+public class BookCounter {
+
+    private static final Logger log = LoggerFactory.getLogger(BookCounter.class);
+    private static final long UNKNOWN = -1;
+    private static final int MAX_RECONCILE_ATTEMPTS = 3;
+
+    private final BookRepository bookRepository;
+    private final AtomicLong total = new AtomicLong(UNKNOWN);
+    private final AtomicLong started = new AtomicLong();
+    // Guarded by this, together with the total update of a finished write
+    private long finished;
+
+    public BookCounter(BookRepository bookRepository) {
+        this.bookRepository = bookRepository;
+    }
+
+    /**
+     * The current total, or empty until the first reconciliation has run.
+     */
+    public OptionalLong total() {
+        long current = total.get();
+        return current == UNKNOWN ? OptionalLong.empty() : OptionalLong.of(current);
+    }
+
+    // Before commit: a write that a count could already see is always known to be in flight
+    @EventListener
+    public void onBookWrite(BookChangeEvent event) {
+        started.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onBookChanged(BookChangeEvent event) {
+        if (event.type() == BookChangeEvent.Type.CREATED) {
+            total.updateAndGet(current -> current == UNKNOWN ? UNKNOWN : current + 1);
+        } else if (event.type() == BookChangeEvent.Type.DELETED) {
+            total.updateAndGet(current -> current == UNKNOWN ? UNKNOWN : Math.max(0, current - 1));
+        }
+        finished++;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_ROLLBACK)
+    public synchronized void onBookWriteRolledBack(BookChangeEvent event) {
+        finished++;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reconcile();
+    }
+
+    @Scheduled(initialDelayString = "${library.count.reconcile-interval-ms:60000}",
+            fixedDelayString = "${library.count.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        for (int attempt = 0; attempt < MAX_RECONCILE_ATTEMPTS; attempt++) {
+            long startedBefore = started.get();
+            if (startedBefore != finishedCount()) {
+                Thread.onSpinWait();
+                continue;
+            }
+            long counted = bookRepository.countOnPrimary();
+            synchronized (this) {
+                // Any write started since the first check makes the count ambiguous; try again
+                if (started.get() == startedBefore && finished == startedBefore) {
+                    long previous = total.getAndSet(counted);
+                    if (previous != UNKNOWN && previous != counted) {
+                        log.warn("Book count drifted from {} to {}; reconciled with the database", previous, counted);
+                    }
+                    return;
+                }
+            }
+        }
+        log.debug("Writes in flight during every count; keeping the adjusted total until the next run");
+    }
+
+    private synchronized long finishedCount() {
+        return finished;
+    }
+}
@@ -0,0 +1,23 @@
+package com.library.online_library.index;
+
+import com.library.online_library.model.Book;
+
+/**
+ * An in-memory structure derived from the books table. Implementations are
+ * filled by {@link BookIndexManager} at startup and patched on every write;
+ * {@link #index(Book)} must behave as an upsert keyed by book id.
+ * A rebuild is {@link #clear()}, one {@link #index(Book)} per book, then
+ * {@link #rebuildCompleted()}, which lets an index defer derived data during
+ * the bulk load.
+ */
+public interface BookIndex {
+
+    void clear();
+
+    void index(Book book);
+
+    void remove(Long bookId);
+
+    default void rebuildCompleted() {
+    }
+}
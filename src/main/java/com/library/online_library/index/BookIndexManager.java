@@ -0,0 +1,89 @@
+package com.library.online_library.index;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.library.online_library.model.Book;
+import com.library.online_library.repository.BookRepository;
+
+/**
+ * Loads every {@link BookIndex} from the database in one keyset-paged pass once
+ * the application is up, then keeps them in sync with {@link BookChangeEvent}s.
+ * Rebuilds and change dispatch are serialized so a write can never be
+ * overwritten by an older row read during a rebuild.
+ */
+@Component
+public class BookIndexManager {
+
+    private static final Logger log = LoggerFactory.getLogger(BookIndexManager.class);
+
+    private final BookRepository bookRepository;
+    private final List<BookIndex> indexes;
+    private final int batchSize;
+
+    private volatile boolean ready;
+
+    public BookIndexManager(BookRepository bookRepository, List<BookIndex> indexes,
+            @Value("${library.index.rebuild-batch-size:5000}") int batchSize) {
+        this.bookRepository = bookRepository;
+        this.indexes = indexes;
+        this.batchSize = batchSize;
+    }
+
+    @Order(0)
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        indexes.forEach(BookIndex::clear);
+
+        long lastId = 0;
+        long count = 0;
+        List<Book> batch;
+        do {
+            batch = bookRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, batchSize));
+            for (Book book : batch) {
+                for (BookIndex index : indexes) {
+                    index.index(book);
+                }
+            }
+            if (!batch.isEmpty()) {
+                lastId = batch.get(batch.size() - 1).getId();
+                count += batch.size();
+            }
+        } while (batch.size() == batchSize);
+        indexes.forEach(BookIndex::rebuildCompleted);
+
+        ready = true;
+        log.info("Indexed {} books into {} in-memory indexes in {} ms",
+                count, indexes.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Only committed writes reach the indexes; a rolled-back write leaves them untouched
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onBookChanged(BookChangeEvent event) {
+        for (BookIndex index : indexes) {
+            if (event.type() == BookChangeEvent.Type.DELETED) {
+                index.remove(event.bookId());
+            } else {
+                index.index(event.book());
+            }
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+}
@@ -0,0 +1,94 @@
+package com.library.online_library.limiter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AIMD concurrency limiter. The limit grows by roughly one per window of fast
+ * responses while the limiter is actually in use, and is cut multiplicatively
+ * whenever a response is slower than the latency threshold or fails, at most
+ * once per congestion episode: a slow response only cuts the limit if it was
+ * admitted after the previous cut, so a burst of requests that all saw the same
+ * spike backs off once rather than once per request. Requests above the limit
+ * are rejected immediately instead of queued.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+    private final AtomicLong rejected = new AtomicLong();
+    // Guarded by this
+    private boolean cut;
+    private long lastCutNanos;
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+            long latencyThresholdMillis, double backoffRatio) {
+        if (minLimit < 1 || minLimit > maxLimit) {
+            throw new IllegalArgumentException("Invalid limits for " + name + ": min=" + minLimit + ", max=" + maxLimit);
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Backoff ratio must be in (0, 1): " + backoffRatio);
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMillis);
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                rejected.incrementAndGet();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long latencyNanos, boolean failed) {
+        int before = inFlight.getAndDecrement();
+        synchronized (this) {
+            if (failed || latencyNanos > latencyThresholdNanos) {
+                long now = System.nanoTime();
+                // Requests admitted before the last cut were already accounted for by it
+                if (!cut || now - latencyNanos - lastCutNanos > 0) {
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                    cut = true;
+                    lastCutNanos = now;
+                }
+            } else if (before * 2 >= limit) {
+                // Only grow when the current limit is being exercised, otherwise an idle
+                // endpoint would drift up to maxLimit and lose its protection.
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+}
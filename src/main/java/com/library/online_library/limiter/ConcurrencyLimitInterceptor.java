@@ -0,0 +1,77 @@
+package com.library.online_library.limiter;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import com.library.online_library.exception.ServiceOverloadedException;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Sheds load per request class before the handler runs. Rejected requests are
+ * turned into a 503 by the global exception handler.
+ */
+public class ConcurrencyLimitInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String LIMITER_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".limiter";
+    private static final String START_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".start";
+
+    private final Map<RequestClass, AdaptiveConcurrencyLimiter> limiters;
+
+    public ConcurrencyLimitInterceptor(Map<RequestClass, AdaptiveConcurrencyLimiter> limiters) {
+        this.limiters = new EnumMap<>(limiters);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+
+        AdaptiveConcurrencyLimiter limiter = limiters.get(classify(request, handlerMethod));
+        if (limiter == null) {
+            return true;
+        }
+        if (!limiter.tryAcquire()) {
+            throw new ServiceOverloadedException("Too many concurrent " + limiter.getName()
+                    + " requests. Please retry shortly.");
+        }
+
+        request.setAttribute(LIMITER_ATTRIBUTE, limiter);
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        release(request, ex != null || response.getStatus() >= 500);
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Long-lived async responses must not hold a slot for their whole lifetime.
+        release(request, false);
+    }
+
+    private void release(HttpServletRequest request, boolean failed) {
+        Object limiter = request.getAttribute(LIMITER_ATTRIBUTE);
+        if (limiter == null) {
+            return;
+        }
+        request.removeAttribute(LIMITER_ATTRIBUTE);
+        long latency = System.nanoTime() - (Long) request.getAttribute(START_ATTRIBUTE);
+        ((AdaptiveConcurrencyLimiter) limiter).release(latency, failed);
+    }
+
+    static RequestClass classify(HttpServletRequest request, HandlerMethod handlerMethod) {
+        ConcurrencyLimited annotation = handlerMethod.getMethodAnnotation(ConcurrencyLimited.class);
+        if (annotation != null) {
+            return annotation.value();
+        }
+        return "GET".equalsIgnoreCase(request.getMethod()) ? RequestClass.READ : RequestClass.WRITE;
+    }
+}
@@ -0,0 +1,17 @@
+package com.library.online_library.limiter;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Assigns a controller method to a request class. Unannotated GET handlers are
+ * treated as {@link RequestClass#READ}, everything else as {@link RequestClass#WRITE}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConcurrencyLimited {
+
+    RequestClass value();
+}
@@ -0,0 +1,42 @@
+package com.library.online_library.limiter;
+
+/**
+ * Groups endpoints by cost so that each group gets its own concurrency limit.
+ * Defaults are the starting limit, the hard ceiling and the latency above which
+ * a response counts as a congestion signal. Paged listings get their own
+ * {@link #LIST} class so large pages cannot crowd out single-book reads.
+ */
+public enum RequestClass {
+
+    READ(50, 400, 100),
+    LIST(20, 200, 300),
+    SEARCH(20, 200, 300),
+    WRITE(10, 100, 300),
+    AI(4, 20, 10_000);
+
+    private final int initialLimit;
+    private final int maxLimit;
+    private final long latencyThresholdMillis;
+
+    RequestClass(int initialLimit, int maxLimit, long latencyThresholdMillis) {
+        this.initialLimit = initialLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdMillis = latencyThresholdMillis;
+    }
+
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public long getLatencyThresholdMillis() {
+        return latencyThresholdMillis;
+    }
+
+    public String propertyKey() {
+        return name().toLowerCase();
+    }
+}
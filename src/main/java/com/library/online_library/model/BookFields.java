@@ -0,0 +1,75 @@
+package com.library.online_library.model;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.library.online_library.exception.InvalidRequestException;
+
+/**
+ * The {@code fields=} projection parameter: which {@link Book} properties a
+ * response should contain, in the order the client asked for them.
+ */
+public final class BookFields {
+
+    public static final List<String> ALL = List.of(
+            "id", "title", "author", "isbn", "publicationYear", "description", "version");
+
+    private BookFields() {
+    }
+
+    /**
+     * Parses a comma-separated field list, or returns {@code null} when none
+     * was requested (meaning the full entity).
+     */
+    public static List<String> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        List<String> parsed = new ArrayList<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty() || parsed.contains(name)) {
+                continue;
+            }
+            if (!ALL.contains(name)) {
+                throw new InvalidRequestException("Unknown field: " + name + " (allowed: " + String.join(",", ALL) + ")");
+            }
+            parsed.add(name);
+        }
+        if (parsed.isEmpty()) {
+            throw new InvalidRequestException("fields must name at least one of: " + String.join(",", ALL));
+        }
+        return parsed;
+    }
+
+    public static Map<String, Object> project(Book book, List<String> fields) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (String field : fields) {
+            values.put(field, value(book, field));
+        }
+        return values;
+    }
+
+    public static List<Map<String, Object>> project(List<Book> books, List<String> fields) {
+        List<Map<String, Object>> projected = new ArrayList<>(books.size());
+        for (Book book : books) {
+            projected.add(project(book, fields));
+        }
+        return projected;
+    }
+
+    private static Object value(Book book, String field) {
+        return switch (field) {
+            case "id" -> book.getId();
+            case "title" -> book.getTitle();
+            case "author" -> book.getAuthor();
+            case "isbn" -> book.getIsbn();
+            case "publicationYear" -> book.getPublicationYear();
+            case "description" -> book.getDescription();
+            case "version" -> book.getVersion();
+            default -> throw new IllegalArgumentException("Unknown field: " + field);
+        };
+    }
+}
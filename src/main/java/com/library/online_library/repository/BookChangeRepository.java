@@ -0,0 +1,16 @@
+package com.library.online_library.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.library.online_library.model.BookChange;
+
+@Repository
+public interface BookChangeRepository extends JpaRepository<BookChange, Long> {
+
+    // Changes after a client's last seen sequence number, oldest first
+    List<BookChange> findBySeqGreaterThanOrderBySeqAsc(Long seq, Pageable pageable);
+}
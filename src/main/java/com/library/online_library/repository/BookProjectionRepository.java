@@ -0,0 +1,18 @@
+package com.library.online_library.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Column projections for the {@code fields=} parameter: only the requested
+ * {@code Book} properties are selected, returned as ordered maps.
+ */
+public interface BookProjectionRepository {
+
+    // A window of books in id order
+    List<Map<String, Object>> findFields(List<String> fields, long offset, int limit);
+
+    // The given books, in the order of ids; missing ids are skipped
+    List<Map<String, Object>> findFieldsByIds(List<String> fields, Collection<Long> ids);
+}
@@ -0,0 +1,94 @@
+package com.library.online_library.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.library.online_library.model.Book;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+// Tuple queries selecting only the requested columns; no entities are hydrated
+class BookProjectionRepositoryImpl implements BookProjectionRepository {
+
+    private static final String ID = "id";
+    // Keeps the IN list well below JDBC parameter limits when a search matches many books
+    private static final int MAX_IDS_PER_QUERY = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findFields(List<String> fields, long offset, int limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Book> book = query.from(Book.class);
+        query.multiselect(selections(book, fields)).orderBy(builder.asc(book.get(ID)));
+
+        List<Tuple> rows = entityManager.createQuery(query)
+                .setFirstResult((int) Math.min(offset, Integer.MAX_VALUE))
+                .setMaxResults(limit)
+                .getResultList();
+        List<Map<String, Object>> projected = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            projected.add(toMap(row, fields));
+        }
+        return projected;
+    }
+
+    @Override
+    public List<Map<String, Object>> findFieldsByIds(List<String> fields, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<Long> idList = new ArrayList<>(ids);
+        Map<Long, Map<String, Object>> byId = new HashMap<>();
+        for (int from = 0; from < idList.size(); from += MAX_IDS_PER_QUERY) {
+            List<Long> chunk = idList.subList(from, Math.min(from + MAX_IDS_PER_QUERY, idList.size()));
+            CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+            CriteriaQuery<Tuple> query = builder.createTupleQuery();
+            Root<Book> book = query.from(Book.class);
+            query.multiselect(selections(book, fields)).where(book.get(ID).in(chunk));
+            for (Tuple row : entityManager.createQuery(query).getResultList()) {
+                byId.put(row.get(ID, Long.class), toMap(row, fields));
+            }
+        }
+        List<Map<String, Object>> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Map<String, Object> values = byId.get(id);
+            if (values != null) {
+                ordered.add(values);
+            }
+        }
+        return ordered;
+    }
+
+    // The id is always selected so results can be re-ordered; it is only returned when requested
+    private static List<Selection<?>> selections(Root<Book> book, List<String> fields) {
+        List<Selection<?>> selections = new ArrayList<>(fields.size() + 1);
+        selections.add(book.get(ID).alias(ID));
+        for (String field : fields) {
+            if (!field.equals(ID)) {
+                selections.add(book.get(field).alias(field));
+            }
+        }
+        return selections;
+    }
+
+    private static Map<String, Object> toMap(Tuple row, List<String> fields) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (String field : fields) {
+            values.put(field, row.get(field));
+        }
+        return values;
+    }
+}
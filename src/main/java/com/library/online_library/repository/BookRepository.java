@@ -2,16 +2,21 @@ package com.library.online_library.repository;
 
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.library.online_library.model.Book;
 
 @Repository
-public interface BookRepository extends JpaRepository<Book, Long>, PagingAndSortingRepository<Book, Long> {
+public interface BookRepository extends JpaRepository<Book, Long>, PagingAndSortingRepository<Book, Long>,
+        BookProjectionRepository {
 
     // Search by title
     List<Book> findByTitleContainingIgnoreCase(String title);
@@ -24,4 +29,26 @@ public interface BookRepository extends JpaRepository<Book, Long>, PagingAndSort
             + "(:title IS NULL OR LOWER(b.title) LIKE LOWER(CONCAT('%', :title, '%'))) AND "
             + "(:author IS NULL OR LOWER(b.author) LIKE LOWER(CONCAT('%', :author, '%')))")
     List<Book> searchBooks(@Param("title") String title, @Param("author") String author);
+
+    // Same matches as searchBooks, ids only, for projected searches that select their own columns
+    @Query("SELECT b.id FROM Book b WHERE "
+            + "(:title IS NULL OR LOWER(b.title) LIKE LOWER(CONCAT('%', :title, '%'))) AND "
+            + "(:author IS NULL OR LOWER(b.author) LIKE LOWER(CONCAT('%', :author, '%')))")
+    List<Long> searchBookIds(@Param("title") String title, @Param("author") String author);
+
+    // Page content without the COUNT(*) query that findAll(Pageable) issues
+    Slice<Book> findAllBy(Pageable pageable);
+
+    // count() is read-only and may be routed to a lagging replica; this one always counts on the primary
+    @Transactional
+    @Query("SELECT COUNT(b) FROM Book b")
+    long countOnPrimary();
+
+    // Returns the number of rows removed, so callers know whether the book existed
+    @Modifying
+    @Query("DELETE FROM Book b WHERE b.id = :id")
+    int deleteBookById(@Param("id") Long id);
+
+    // Keyset pagination used to stream the whole table into the in-memory indexes
+    List<Book> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
 }
@@ -0,0 +1,353 @@
+package com.library.online_library.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.library.online_library.index.BookIndex;
+import com.library.online_library.model.Book;
+import com.library.online_library.util.LongIntHashMap;
+
+/**
+ * In-memory inverted index over title, author and description scored with
+ * BM25F: per-field term frequencies are length-normalized, weighted by a field
+ * boost and summed before BM25 saturation. Each book gets a dense internal
+ * document number; updates delete the old document and append a new one, and
+ * deleted documents are purged by a compaction pass once they pile up.
+ * Document frequencies include not-yet-compacted deletions, as in Lucene.
+ */
+@Component
+public class Bm25Index implements BookIndex {
+
+    private static final int FIELDS = 3;
+    private static final int TITLE = 0;
+    private static final int AUTHOR = 1;
+    private static final int DESCRIPTION = 2;
+
+    // Per-field term frequencies are packed into one int, 10 bits each.
+    private static final int TF_BITS = 10;
+    private static final int MAX_TF = (1 << TF_BITS) - 1;
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int MIN_DELETES_BEFORE_COMPACTION = 1024;
+
+    private final float[] boosts;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final LongIntHashMap docsByBookId = new LongIntHashMap(-1);
+    private final BitSet deleted = new BitSet();
+    private final long[] totalFieldLengths = new long[FIELDS];
+    private long[] bookIds = new long[1024];
+    private int[] fieldLengths = new int[1024 * FIELDS];
+    private int maxDoc;
+    private int deletedCount;
+
+    public Bm25Index(@Value("${library.search.boost.title:3.0}") float titleBoost,
+            @Value("${library.search.boost.author:2.0}") float authorBoost,
+            @Value("${library.search.boost.description:1.0}") float descriptionBoost) {
+        this.boosts = new float[] {titleBoost, authorBoost, descriptionBoost};
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            docsByBookId.clear();
+            deleted.clear();
+            Arrays.fill(totalFieldLengths, 0);
+            maxDoc = 0;
+            deletedCount = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void index(Book book) {
+        String[] fields = new String[FIELDS];
+        fields[TITLE] = book.getTitle();
+        fields[AUTHOR] = book.getAuthor();
+        fields[DESCRIPTION] = book.getDescription();
+
+        // Analyze outside the lock; only the postings update needs exclusivity.
+        Map<String, Integer> packedFrequencies = new HashMap<>();
+        int[] lengths = new int[FIELDS];
+        for (int field = 0; field < FIELDS; field++) {
+            List<String> terms = TextAnalyzer.analyze(fields[field]);
+            lengths[field] = terms.size();
+            int shift = field * TF_BITS;
+            for (String term : terms) {
+                packedFrequencies.merge(term, 1 << shift, (packed, one) ->
+                        ((packed >>> shift) & MAX_TF) == MAX_TF ? packed : packed + one);
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeDocument(book.getId());
+            int doc = maxDoc++;
+            ensureCapacity(maxDoc);
+            bookIds[doc] = book.getId();
+            docsByBookId.put(book.getId(), doc);
+            for (int field = 0; field < FIELDS; field++) {
+                fieldLengths[doc * FIELDS + field] = lengths[field];
+                totalFieldLengths[field] += lengths[field];
+            }
+            for (Map.Entry<String, Integer> entry : packedFrequencies.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), term -> new Postings()).add(doc, entry.getValue());
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(bookId);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} books ranked by BM25F score for the query,
+     * best first. Query terms are ORed; books matching more terms rank higher.
+     */
+    public List<SearchHit> search(String query, int limit) {
+        return search(query, limit, null);
+    }
+
+    /**
+     * As {@link #search(String, int)}, but only books accepted by
+     * {@code filter} (when not null) compete for the top {@code limit}.
+     */
+    public List<SearchHit> search(String query, int limit, LongPredicate filter) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(TextAnalyzer.analyze(query)));
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            int liveDocs = maxDoc - deletedCount;
+            if (liveDocs == 0) {
+                return List.of();
+            }
+            float[] averageLengths = new float[FIELDS];
+            for (int field = 0; field < FIELDS; field++) {
+                averageLengths[field] = Math.max(1f, (float) totalFieldLengths[field] / liveDocs);
+            }
+
+            List<Postings> termPostings = new ArrayList<>(terms.size());
+            long candidates = 0;
+            for (String term : terms) {
+                Postings found = postings.get(term);
+                if (found != null) {
+                    termPostings.add(found);
+                    candidates += found.size;
+                }
+            }
+            TopKCollector collector = new TopKCollector((int) Math.min(limit, Math.max(candidates, 1)));
+            collect(termPostings, liveDocs, averageLengths, filter, collector);
+
+            int[] topDocs = new int[collector.size()];
+            float[] topScores = new float[collector.size()];
+            int count = collector.drainDescending(topDocs, topScores);
+
+            List<SearchHit> hits = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                hits.add(new SearchHit(bookIds[topDocs[i]], topScores[i]));
+            }
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Ids of every live book matching at least one query term, unranked. */
+    public long[] matchingBookIds(String query) {
+        List<String> terms = TextAnalyzer.analyze(query);
+        lock.readLock().lock();
+        try {
+            BitSet matches = new BitSet(maxDoc);
+            for (String term : terms) {
+                Postings found = postings.get(term);
+                for (int i = 0; found != null && i < found.size; i++) {
+                    matches.set(found.docs[i]);
+                }
+            }
+            matches.andNot(deleted);
+            long[] ids = new long[matches.cardinality()];
+            int next = 0;
+            for (int doc = matches.nextSetBit(0); doc >= 0; doc = matches.nextSetBit(doc + 1)) {
+                ids[next++] = bookIds[doc];
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return maxDoc - deletedCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Document-at-a-time scoring: every postings list is sorted by doc, so the
+     * lists are merged with one cursor each and a document's score is complete
+     * once all cursors have moved past it. Nothing is allocated per document.
+     */
+    private void collect(List<Postings> termPostings, int liveDocs, float[] averageLengths, LongPredicate filter,
+            TopKCollector collector) {
+        int terms = termPostings.size();
+        int[] cursors = new int[terms];
+        float[] idfs = new float[terms];
+        for (int t = 0; t < terms; t++) {
+            int docFrequency = Math.min(termPostings.get(t).size, liveDocs);
+            idfs[t] = (float) Math.log(1 + (liveDocs - docFrequency + 0.5) / (docFrequency + 0.5));
+        }
+
+        while (true) {
+            int doc = Integer.MAX_VALUE;
+            for (int t = 0; t < terms; t++) {
+                Postings current = termPostings.get(t);
+                if (cursors[t] < current.size) {
+                    doc = Math.min(doc, current.docs[cursors[t]]);
+                }
+            }
+            if (doc == Integer.MAX_VALUE) {
+                return;
+            }
+            float score = 0;
+            for (int t = 0; t < terms; t++) {
+                Postings current = termPostings.get(t);
+                if (cursors[t] < current.size && current.docs[cursors[t]] == doc) {
+                    score += termScore(current.frequencies[cursors[t]], doc, idfs[t], averageLengths);
+                    cursors[t]++;
+                }
+            }
+            if (!deleted.get(doc) && (filter == null || filter.test(bookIds[doc]))) {
+                collector.collect(doc, score);
+            }
+        }
+    }
+
+    private float termScore(int packed, int doc, float idf, float[] averageLengths) {
+        float weightedTf = 0;
+        for (int field = 0; field < FIELDS; field++) {
+            int tf = (packed >>> (field * TF_BITS)) & MAX_TF;
+            if (tf > 0) {
+                float norm = 1 - B + B * fieldLengths[doc * FIELDS + field] / averageLengths[field];
+                weightedTf += boosts[field] * tf / norm;
+            }
+        }
+        return idf * weightedTf * (K1 + 1) / (K1 + weightedTf);
+    }
+
+    private void removeDocument(Long bookId) {
+        int doc = docsByBookId.remove(bookId);
+        if (doc < 0) {
+            return;
+        }
+        deleted.set(doc);
+        deletedCount++;
+        for (int field = 0; field < FIELDS; field++) {
+            totalFieldLengths[field] -= fieldLengths[doc * FIELDS + field];
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (deletedCount >= MIN_DELETES_BEFORE_COMPACTION && deletedCount * 4 >= maxDoc) {
+            compact();
+        }
+    }
+
+    // Renumbers live documents densely and drops deleted entries from every postings list.
+    private void compact() {
+        int[] remap = new int[maxDoc];
+        int next = 0;
+        for (int doc = 0; doc < maxDoc; doc++) {
+            if (deleted.get(doc)) {
+                remap[doc] = -1;
+                continue;
+            }
+            remap[doc] = next;
+            bookIds[next] = bookIds[doc];
+            System.arraycopy(fieldLengths, doc * FIELDS, fieldLengths, next * FIELDS, FIELDS);
+            docsByBookId.put(bookIds[next], next);
+            next++;
+        }
+
+        Iterator<Postings> iterator = postings.values().iterator();
+        while (iterator.hasNext()) {
+            Postings termPostings = iterator.next();
+            termPostings.remap(remap);
+            if (termPostings.size == 0) {
+                iterator.remove();
+            }
+        }
+        deleted.clear();
+        deletedCount = 0;
+        maxDoc = next;
+    }
+
+    private void ensureCapacity(int docs) {
+        if (docs > bookIds.length) {
+            int capacity = Math.max(docs, bookIds.length * 2);
+            bookIds = Arrays.copyOf(bookIds, capacity);
+            fieldLengths = Arrays.copyOf(fieldLengths, capacity * FIELDS);
+        }
+    }
+
+    private static final class Postings {
+
+        private int[] docs = new int[2];
+        private int[] frequencies = new int[2];
+        private int size;
+
+        void add(int doc, int packedFrequencies) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            docs[size] = doc;
+            frequencies[size] = packedFrequencies;
+            size++;
+        }
+
+        void remap(int[] remap) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int doc = remap[docs[i]];
+                if (doc >= 0) {
+                    docs[kept] = doc;
+                    frequencies[kept] = frequencies[i];
+                    kept++;
+                }
+            }
+            size = kept;
+        }
+    }
+}
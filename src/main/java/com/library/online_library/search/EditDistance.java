@@ -0,0 +1,65 @@
+package com.library.online_library.search;
+
+/**
+ * Bounded optimal-string-alignment distance (Levenshtein plus adjacent
+ * transpositions). Only the diagonal band of width {@code 2 * max + 1} is
+ * filled and the computation stops as soon as every cell in a row exceeds
+ * {@code max}, so verifying a candidate costs O(max * length).
+ */
+final class EditDistance {
+
+    private EditDistance() {
+    }
+
+    /** Returns the distance if it is at most {@code max}, otherwise {@code max + 1}. */
+    static int bounded(String a, String b, int max) {
+        int lengthA = a.length();
+        int lengthB = b.length();
+        if (Math.abs(lengthA - lengthB) > max) {
+            return max + 1;
+        }
+        if (a.equals(b)) {
+            return 0;
+        }
+
+        int over = max + 1;
+        int[] previousPrevious = new int[lengthB + 1];
+        int[] previous = new int[lengthB + 1];
+        int[] current = new int[lengthB + 1];
+        for (int j = 0; j <= lengthB; j++) {
+            previous[j] = Math.min(j, over);
+        }
+
+        for (int i = 1; i <= lengthA; i++) {
+            int from = Math.max(1, i - max);
+            int to = Math.min(lengthB, i + max);
+            current[0] = Math.min(i, over);
+            if (from > 1) {
+                current[from - 1] = over;
+            }
+            int rowMinimum = current[0];
+            char charA = a.charAt(i - 1);
+            for (int j = from; j <= to; j++) {
+                char charB = b.charAt(j - 1);
+                int cost = charA == charB ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && charA == b.charAt(j - 2) && a.charAt(i - 2) == charB) {
+                    value = Math.min(value, previousPrevious[j - 2] + 1);
+                }
+                current[j] = Math.min(value, over);
+                rowMinimum = Math.min(rowMinimum, current[j]);
+            }
+            if (to < lengthB) {
+                current[to + 1] = over;
+            }
+            if (rowMinimum > max) {
+                return over;
+            }
+            int[] recycled = previousPrevious;
+            previousPrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[lengthB];
+    }
+}
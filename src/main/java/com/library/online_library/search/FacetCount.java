@@ -0,0 +1,7 @@
+package com.library.online_library.search;
+
+/**
+ * One facet value and the number of books that have it.
+ */
+public record FacetCount(String value, int count) {
+}
@@ -0,0 +1,158 @@
+package com.library.online_library.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.stereotype.Component;
+
+import com.library.online_library.index.BookIndex;
+import com.library.online_library.model.Book;
+import com.library.online_library.util.LongIntHashMap;
+
+/**
+ * Author and publication-decade counters kept in {@code int} arrays and
+ * adjusted on every write, so catalog-wide facets are a read of the counters.
+ * Each book's facet values are remembered (packed into one {@code int}) so
+ * that updates and deletes can decrement what was counted before; the same map
+ * answers facets for an arbitrary set of book ids without touching the database.
+ */
+@Component
+public class FacetIndex implements BookIndex {
+
+    private static final int FIRST_DECADE = 100;
+    private static final int DECADES = 111;
+    private static final int DECADE_BITS = 8;
+    private static final int DECADE_MASK = (1 << DECADE_BITS) - 1;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> authorIds = new HashMap<>();
+    private final List<String> authorNames = new ArrayList<>();
+    private final int[] decadeCounts = new int[DECADES];
+    private final LongIntHashMap facetsByBookId = new LongIntHashMap(-1);
+    private int[] authorCounts = new int[256];
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            authorIds.clear();
+            authorNames.clear();
+            Arrays.fill(decadeCounts, 0);
+            facetsByBookId.clear();
+            authorCounts = new int[256];
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void index(Book book) {
+        lock.writeLock().lock();
+        try {
+            unlink(book.getId());
+            int packed = (authorId(book.getAuthor()) << DECADE_BITS) | decadeIndex(book.getPublicationYear());
+            facetsByBookId.put(book.getId(), packed);
+            authorCounts[packed >>> DECADE_BITS]++;
+            decadeCounts[packed & DECADE_MASK]++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            unlink(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Catalog-wide facets, straight from the counters. */
+    public Facets facets(int authorLimit) {
+        lock.readLock().lock();
+        try {
+            return toFacets(facetsByBookId.size(), authorCounts, authorNames.size(), decadeCounts, authorLimit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Facets over the given books only; ids that are not indexed are ignored. */
+    public Facets facets(long[] bookIds, int authorLimit) {
+        lock.readLock().lock();
+        try {
+            int[] scopedAuthors = new int[authorNames.size()];
+            int[] scopedDecades = new int[DECADES];
+            long total = 0;
+            for (long bookId : bookIds) {
+                int packed = facetsByBookId.get(bookId);
+                if (packed >= 0) {
+                    scopedAuthors[packed >>> DECADE_BITS]++;
+                    scopedDecades[packed & DECADE_MASK]++;
+                    total++;
+                }
+            }
+            return toFacets(total, scopedAuthors, scopedAuthors.length, scopedDecades, authorLimit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Facets toFacets(long total, int[] authors, int authorCount, int[] decades, int authorLimit) {
+        TopKCollector collector = new TopKCollector(Math.max(1, authorLimit));
+        for (int author = 0; author < authorCount; author++) {
+            if (authors[author] > 0) {
+                collector.collect(author, authors[author]);
+            }
+        }
+        int[] topAuthors = new int[collector.size()];
+        collector.drainDescending(topAuthors, new float[topAuthors.length]);
+        List<FacetCount> authorFacets = new ArrayList<>(topAuthors.length);
+        for (int author : topAuthors) {
+            authorFacets.add(new FacetCount(authorNames.get(author), authors[author]));
+        }
+
+        List<FacetCount> decadeFacets = new ArrayList<>();
+        for (int decade = 0; decade < DECADES; decade++) {
+            if (decades[decade] > 0) {
+                decadeFacets.add(new FacetCount((FIRST_DECADE + decade) * 10 + "s", decades[decade]));
+            }
+        }
+        return new Facets(total, authorFacets, decadeFacets);
+    }
+
+    private void unlink(long bookId) {
+        int packed = facetsByBookId.remove(bookId);
+        if (packed >= 0) {
+            authorCounts[packed >>> DECADE_BITS]--;
+            decadeCounts[packed & DECADE_MASK]--;
+        }
+    }
+
+    // Authors are grouped case- and accent-insensitively; the first spelling seen is displayed.
+    private int authorId(String author) {
+        String key = SuggestionIndex.normalize(author);
+        Integer existing = authorIds.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        int authorId = authorNames.size();
+        authorIds.put(key, authorId);
+        authorNames.add(author == null ? "" : author.strip());
+        if (authorId == authorCounts.length) {
+            authorCounts = Arrays.copyOf(authorCounts, authorId * 2);
+        }
+        return authorId;
+    }
+
+    // Years outside the validated 1000-2100 range are clamped into the first or last decade.
+    private static int decadeIndex(int year) {
+        return Math.max(0, Math.min(DECADES - 1, year / 10 - FIRST_DECADE));
+    }
+}
@@ -0,0 +1,10 @@
+package com.library.online_library.search;
+
+import java.util.List;
+
+/**
+ * Facet counts for a set of books: top authors by count, and every publication
+ * decade that has at least one book, oldest first.
+ */
+public record Facets(long total, List<FacetCount> authors, List<FacetCount> decades) {
+}
@@ -0,0 +1,483 @@
+package com.library.online_library.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.library.online_library.index.BookIndex;
+import com.library.online_library.model.Book;
+import com.library.online_library.util.IntArrayList;
+import com.library.online_library.util.LongHeap;
+import com.library.online_library.util.LongIntHashMap;
+
+/**
+ * Typo-tolerant lookup on title and author words using a deletion-neighborhood
+ * (SymSpell-style) index: every vocabulary term is registered under all strings
+ * reachable by deleting up to {@code maxEdits} characters, so a query word only
+ * has to generate its own deletions and look them up. Candidates are then
+ * verified with a bounded edit distance. The allowed distance shrinks for short
+ * words, which would otherwise match almost anything. Each book remembers its
+ * position in every posting list, so updates unlink it in constant time, and
+ * terms no book uses any more leave the vocabulary.
+ */
+@Component
+public class FuzzyIndex implements BookIndex {
+
+    private final int maxEdits;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final FieldDictionary titles;
+    private final FieldDictionary authors;
+
+    public FuzzyIndex(@Value("${library.search.fuzzy.max-edits:2}") int maxEdits) {
+        this.maxEdits = maxEdits;
+        this.titles = new FieldDictionary();
+        this.authors = new FieldDictionary();
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            titles.clear();
+            authors.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void index(Book book) {
+        List<String> titleWords = words(book.getTitle());
+        List<String> authorWords = words(book.getAuthor());
+        lock.writeLock().lock();
+        try {
+            titles.put(book.getId(), titleWords);
+            authors.put(book.getId(), authorWords);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            titles.remove(bookId);
+            authors.remove(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Books whose title contains every title word and whose author contains
+     * every author word, each within the allowed edit distance. Either filter may
+     * be blank. Results are ordered by total edit distance, then by id.
+     */
+    public List<Long> search(String title, String author, int limit) {
+        return search(title, author, limit, null);
+    }
+
+    /**
+     * As {@link #search(String, String, int)}, but only books accepted by
+     * {@code filter} (when not null) compete for the top {@code limit}.
+     */
+    public List<Long> search(String title, String author, int limit, LongPredicate filter) {
+        List<String> titleWords = words(title);
+        List<String> authorWords = words(author);
+        if (titleWords.isEmpty() && authorWords.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            WordMatches titleMatches = titleWords.isEmpty() ? null : titles.matchWords(titleWords);
+            WordMatches authorMatches = authorWords.isEmpty() ? null : authors.matchWords(authorWords);
+            if ((titleMatches != null && titleMatches.isEmpty()) || (authorMatches != null && authorMatches.isEmpty())) {
+                return List.of();
+            }
+
+            // Walk the more selective field's candidates and check the other field book by book.
+            boolean titlesFirst = authorMatches == null
+                    || (titleMatches != null && titleMatches.seedPostings() <= authorMatches.seedPostings());
+            FieldDictionary other = titlesFirst ? authors : titles;
+            WordMatches otherMatches = titlesFirst ? authorMatches : titleMatches;
+            TopBooks best = new TopBooks(limit);
+            (titlesFirst ? titles : authors).forEachMatch(titlesFirst ? titleMatches : authorMatches,
+                    (bookId, distance) -> {
+                        if (filter != null && !filter.test(bookId)) {
+                            return;
+                        }
+                        int otherDistance = otherMatches == null ? 0 : other.distance(bookId, otherMatches, -1);
+                        if (otherDistance >= 0) {
+                            best.offer(bookId, distance + otherDistance);
+                        }
+                    });
+            return best.ids();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int allowedEdits(String word) {
+        if (word.length() <= 2) {
+            return 0;
+        }
+        return word.length() <= 5 ? Math.min(1, maxEdits) : maxEdits;
+    }
+
+    int vocabularySize() {
+        lock.readLock().lock();
+        try {
+            return titles.termIds.size() + authors.termIds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        for (String token : TextAnalyzer.tokenize(text)) {
+            if (!TextAnalyzer.isStopWord(token)) {
+                words.add(token);
+            }
+        }
+        return words;
+    }
+
+    private final class FieldDictionary {
+
+        // Marks a candidate term that failed verification, so it is not verified twice.
+        private static final int REJECTED = Integer.MAX_VALUE;
+
+        private final Map<String, Integer> termIds = new HashMap<>();
+        private final List<String> terms = new ArrayList<>();
+        private final List<LongList> postings = new ArrayList<>();
+        private final Map<String, IntArrayList> deletions = new HashMap<>();
+        private final IntArrayList freeTermIds = new IntArrayList();
+
+        // Term ids per book and the book's position in each of those postings,
+        // needed to unlink a book on update or delete without scanning.
+        private final LongIntHashMap slotsByBookId = new LongIntHashMap(-1);
+        private final List<int[]> termsBySlot = new ArrayList<>();
+        private final List<int[]> positionsBySlot = new ArrayList<>();
+        private final IntArrayList freeSlots = new IntArrayList();
+
+        void clear() {
+            termIds.clear();
+            terms.clear();
+            postings.clear();
+            deletions.clear();
+            freeTermIds.clear();
+            slotsByBookId.clear();
+            termsBySlot.clear();
+            positionsBySlot.clear();
+            freeSlots.clear();
+        }
+
+        void put(long bookId, List<String> words) {
+            remove(bookId);
+            IntArrayList distinct = new IntArrayList(words.size());
+            for (String word : words) {
+                int termId = termId(word);
+                if (!contains(distinct, termId)) {
+                    distinct.add(termId);
+                }
+            }
+            int[] bookTerms = distinct.toArray();
+            int[] positions = new int[bookTerms.length];
+            for (int i = 0; i < bookTerms.length; i++) {
+                LongList books = postings.get(bookTerms[i]);
+                positions[i] = books.size;
+                books.add(bookId);
+            }
+            int slot;
+            if (freeSlots.isEmpty()) {
+                slot = termsBySlot.size();
+                termsBySlot.add(bookTerms);
+                positionsBySlot.add(positions);
+            } else {
+                slot = freeSlots.get(freeSlots.size() - 1);
+                freeSlots.swapRemove(freeSlots.size() - 1);
+                termsBySlot.set(slot, bookTerms);
+                positionsBySlot.set(slot, positions);
+            }
+            slotsByBookId.put(bookId, slot);
+        }
+
+        void remove(long bookId) {
+            int slot = slotsByBookId.remove(bookId);
+            if (slot < 0) {
+                return;
+            }
+            int[] bookTerms = termsBySlot.get(slot);
+            int[] positions = positionsBySlot.get(slot);
+            for (int i = 0; i < bookTerms.length; i++) {
+                unlink(bookTerms[i], positions[i]);
+            }
+            termsBySlot.set(slot, null);
+            positionsBySlot.set(slot, null);
+            freeSlots.add(slot);
+        }
+
+        // Swap-removes the posting and repoints the book that moved into its place.
+        private void unlink(int termId, int position) {
+            LongList books = postings.get(termId);
+            books.values[position] = books.values[--books.size];
+            if (position < books.size) {
+                int movedSlot = slotsByBookId.get(books.values[position]);
+                int[] movedTerms = termsBySlot.get(movedSlot);
+                for (int i = 0; i < movedTerms.length; i++) {
+                    if (movedTerms[i] == termId) {
+                        positionsBySlot.get(movedSlot)[i] = position;
+                        break;
+                    }
+                }
+            } else if (books.size == 0) {
+                release(termId);
+            }
+        }
+
+        // Drops a term no book uses any more from the vocabulary and the deletion map.
+        private void release(int termId) {
+            String term = terms.get(termId);
+            termIds.remove(term);
+            for (String variant : deletionsOf(term, allowedEdits(term))) {
+                IntArrayList termList = deletions.get(variant);
+                for (int i = 0; i < termList.size(); i++) {
+                    if (termList.get(i) == termId) {
+                        termList.swapRemove(i);
+                        break;
+                    }
+                }
+                if (termList.isEmpty()) {
+                    deletions.remove(variant);
+                }
+            }
+            terms.set(termId, null);
+            postings.set(termId, null);
+            freeTermIds.add(termId);
+        }
+
+        /**
+         * Verified vocabulary terms per query word, plus which word has the
+         * fewest postings behind its terms. Empty if some word matches nothing.
+         */
+        WordMatches matchWords(List<String> words) {
+            LongIntHashMap[] wordTerms = new LongIntHashMap[words.size()];
+            int seed = -1;
+            long seedPostings = Long.MAX_VALUE;
+            for (int i = 0; i < wordTerms.length; i++) {
+                wordTerms[i] = new LongIntHashMap(-1);
+                long matchedPostings = matchWord(words.get(i), wordTerms[i]);
+                if (matchedPostings == 0) {
+                    return WordMatches.NONE;
+                }
+                if (matchedPostings < seedPostings) {
+                    seed = i;
+                    seedPostings = matchedPostings;
+                }
+            }
+            return new WordMatches(wordTerms, seed, seedPostings);
+        }
+
+        /**
+         * Calls the visitor once per book containing all query words, with the
+         * summed best distance per word. Only the postings of the most selective
+         * word are walked; every other word is checked against the book's own
+         * terms, so nothing is copied per query.
+         */
+        void forEachMatch(WordMatches matches, LongIntHashMap.EntryVisitor visitor) {
+            matches.wordTerms()[matches.seed()].forEach((termId, distance) -> {
+                if (distance == REJECTED) {
+                    return;
+                }
+                LongList books = postings.get((int) termId);
+                for (int i = 0; i < books.size; i++) {
+                    int total = distance(books.values[i], matches, (int) termId);
+                    if (total >= 0) {
+                        visitor.visit(books.values[i], total);
+                    }
+                }
+            });
+        }
+
+        /**
+         * Verifies the vocabulary terms sharing a deletion variant with {@code word}
+         * and records each one's distance (or {@link #REJECTED}) in {@code matches}.
+         * Returns the number of postings behind the accepted terms.
+         */
+        private long matchWord(String word, LongIntHashMap matches) {
+            int edits = allowedEdits(word);
+            long matchedPostings = 0;
+            for (String variant : deletionsOf(word, edits)) {
+                IntArrayList termList = deletions.get(variant);
+                if (termList == null) {
+                    continue;
+                }
+                for (int i = 0; i < termList.size(); i++) {
+                    int termId = termList.get(i);
+                    if (matches.containsKey(termId)) {
+                        continue;
+                    }
+                    String term = terms.get(termId);
+                    int bound = Math.min(edits, allowedEdits(term));
+                    int distance = EditDistance.bounded(word, term, bound);
+                    if (distance > bound) {
+                        matches.put(termId, REJECTED);
+                    } else {
+                        matches.put(termId, distance);
+                        matchedPostings += postings.get(termId).size;
+                    }
+                }
+            }
+            return matchedPostings;
+        }
+
+        /**
+         * Summed best distance of the book's terms to each query word, or -1 if
+         * a word has no match. With a {@code seedTermId}, also -1 unless that
+         * term is the book's best match for the seed word, so a book reached
+         * through several seed terms is only counted once.
+         */
+        int distance(long bookId, WordMatches matches, int seedTermId) {
+            int slot = slotsByBookId.get(bookId);
+            if (slot < 0) {
+                return -1;
+            }
+            int[] bookTerms = termsBySlot.get(slot);
+            LongIntHashMap[] wordTerms = matches.wordTerms();
+            int total = 0;
+            for (int word = 0; word < wordTerms.length; word++) {
+                int best = REJECTED;
+                int bestTermId = -1;
+                for (int termId : bookTerms) {
+                    int distance = wordTerms[word].get(termId);
+                    if (distance >= 0 && (distance < best || (distance == best && termId < bestTermId))) {
+                        best = distance;
+                        bestTermId = termId;
+                    }
+                }
+                if (best == REJECTED || (seedTermId >= 0 && word == matches.seed() && bestTermId != seedTermId)) {
+                    return -1;
+                }
+                total += best;
+            }
+            return total;
+        }
+
+        private int termId(String term) {
+            Integer existing = termIds.get(term);
+            if (existing != null) {
+                return existing;
+            }
+            int termId;
+            if (freeTermIds.isEmpty()) {
+                termId = terms.size();
+                terms.add(term);
+                postings.add(new LongList());
+            } else {
+                termId = freeTermIds.get(freeTermIds.size() - 1);
+                freeTermIds.swapRemove(freeTermIds.size() - 1);
+                terms.set(termId, term);
+                postings.set(termId, new LongList());
+            }
+            termIds.put(term, termId);
+            for (String variant : deletionsOf(term, allowedEdits(term))) {
+                deletions.computeIfAbsent(variant, key -> new IntArrayList(1)).add(termId);
+            }
+            return termId;
+        }
+
+        private static boolean contains(IntArrayList list, int value) {
+            for (int i = 0; i < list.size(); i++) {
+                if (list.get(i) == value) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    // Bounded max-heap of (distance << 48 | id): only the best `limit` books are ever kept.
+    private static final class TopBooks {
+
+        private final int limit;
+        private final LongHeap heap;
+
+        TopBooks(int limit) {
+            this.limit = limit;
+            this.heap = LongHeap.maxHeap(Math.min(limit, 1024) + 1);
+        }
+
+        void offer(long bookId, int distance) {
+            long packed = ((long) distance << 48) | bookId;
+            if (heap.size() < limit) {
+                heap.push(packed);
+            } else if (limit > 0 && packed < heap.peek()) {
+                heap.pop();
+                heap.push(packed);
+            }
+        }
+
+        List<Long> ids() {
+            long[] packed = heap.drainAscending();
+            List<Long> ids = new ArrayList<>(packed.length);
+            for (long entry : packed) {
+                ids.add(entry & 0xFFFF_FFFF_FFFFL);
+            }
+            return ids;
+        }
+    }
+
+    private record WordMatches(LongIntHashMap[] wordTerms, int seed, long seedPostings) {
+
+        static final WordMatches NONE = new WordMatches(new LongIntHashMap[0], -1, 0);
+
+        boolean isEmpty() {
+            return seedPostings == 0;
+        }
+    }
+
+    /** The word itself plus every string obtained by deleting up to {@code edits} characters. */
+    static Set<String> deletionsOf(String word, int edits) {
+        Set<String> variants = new HashSet<>();
+        variants.add(word);
+        List<String> frontier = List.of(word);
+        for (int round = 0; round < edits; round++) {
+            List<String> next = new ArrayList<>();
+            for (String current : frontier) {
+                for (int i = 0; i < current.length(); i++) {
+                    String variant = current.substring(0, i) + current.substring(i + 1);
+                    if (variants.add(variant)) {
+                        next.add(variant);
+                    }
+                }
+            }
+            frontier = next;
+        }
+        return variants;
+    }
+
+    private static final class LongList {
+
+        private long[] values = new long[2];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.library.online_library.search;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.library.online_library.model.Book;
+
+/**
+ * Hashed TF-IDF text vectors computed locally from title, author and
+ * description. Terms are hashed into a fixed number of buckets with a random
+ * sign to cancel collisions on average; inverse document frequency is kept per
+ * bucket and updated as documents come and go. Author names use their own hash
+ * namespace so that "Martin" the author and "martin" in a title do not collide
+ * on purpose.
+ */
+public class HashedTfIdfVectorizer {
+
+    private static final float TITLE_WEIGHT = 2.0f;
+    private static final float AUTHOR_WEIGHT = 1.5f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+
+    private final int dimensions;
+    private final int[] documentFrequencies;
+    private int documents;
+
+    public HashedTfIdfVectorizer(int dimensions) {
+        this.dimensions = dimensions;
+        this.documentFrequencies = new int[dimensions];
+    }
+
+    public int dimensions() {
+        return dimensions;
+    }
+
+    /** Sublinear, field-weighted term frequencies, before IDF weighting. */
+    public float[] termFrequencies(Book book) {
+        Map<String, Float> weights = new HashMap<>();
+        addTerms(weights, "", book.getTitle(), TITLE_WEIGHT);
+        addTerms(weights, "author:", book.getAuthor(), AUTHOR_WEIGHT);
+        addTerms(weights, "", book.getDescription(), DESCRIPTION_WEIGHT);
+
+        float[] vector = new float[dimensions];
+        for (Map.Entry<String, Float> entry : weights.entrySet()) {
+            int hash = mix(entry.getKey().hashCode());
+            int bucket = Math.floorMod(hash, dimensions);
+            float sign = (hash & 0x8000_0000) == 0 ? 1f : -1f;
+            vector[bucket] += sign * (float) (1 + Math.log(entry.getValue()));
+        }
+        return vector;
+    }
+
+    public void documentAdded(float[] vector) {
+        documents++;
+        for (int i = 0; i < dimensions; i++) {
+            if (vector[i] != 0) {
+                documentFrequencies[i]++;
+            }
+        }
+    }
+
+    public void documentRemoved(float[] vector) {
+        documents--;
+        for (int i = 0; i < dimensions; i++) {
+            if (vector[i] != 0) {
+                documentFrequencies[i]--;
+            }
+        }
+    }
+
+    /** Applies the current IDF weights and scales to unit length, in place. */
+    public float[] weight(float[] termFrequencies) {
+        double norm = 0;
+        for (int i = 0; i < dimensions; i++) {
+            if (termFrequencies[i] != 0) {
+                termFrequencies[i] *= (float) (Math.log((documents + 1.0) / (documentFrequencies[i] + 1.0)) + 1);
+                norm += termFrequencies[i] * termFrequencies[i];
+            }
+        }
+        if (norm > 0) {
+            float scale = (float) (1 / Math.sqrt(norm));
+            for (int i = 0; i < dimensions; i++) {
+                termFrequencies[i] *= scale;
+            }
+        }
+        return termFrequencies;
+    }
+
+    public void clear() {
+        Arrays.fill(documentFrequencies, 0);
+        documents = 0;
+    }
+
+    // Field weight accumulates per occurrence; log(1 + n) later keeps repeated words from dominating.
+    private static void addTerms(Map<String, Float> weights, String namespace, String text, float fieldWeight) {
+        for (String term : TextAnalyzer.analyze(text)) {
+            weights.merge(namespace + term, fieldWeight, Float::sum);
+        }
+    }
+
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85EB_CA6B;
+        hash ^= hash >>> 13;
+        hash *= 0xC2B2_AE35;
+        return hash ^ (hash >>> 16);
+    }
+}
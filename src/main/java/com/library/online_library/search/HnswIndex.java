@@ -0,0 +1,408 @@
+package com.library.online_library.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import com.library.online_library.util.IntArrayList;
+import com.library.online_library.util.LongHeap;
+import com.library.online_library.util.LongIntHashMap;
+
+/**
+ * Hierarchical navigable small world graph (Malkov and Yashunin) for
+ * approximate nearest neighbours by cosine similarity over unit-length vectors.
+ * Vectors live in one flat {@code float[]} and level-0 links in one flat
+ * {@code int[]}; only the few nodes promoted to upper levels get extra arrays.
+ * Removal leaves a tombstone that still routes searches but is never returned
+ * and does not count toward {@code ef}; the next add reuses a tombstoned slot
+ * (keeping its level, relinking it from scratch), so updates and deletes
+ * followed by inserts do not grow the graph.
+ *
+ * <p>Not thread-safe for writes; concurrent searches are fine once writes are
+ * excluded by the caller.
+ */
+public class HnswIndex {
+
+    private final int dimensions;
+    private final int maxLinks;
+    private final int maxBaseLinks;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final SplittableRandom random;
+    private final ThreadLocal<Visited> visited = ThreadLocal.withInitial(Visited::new);
+
+    private final LongIntHashMap nodesByKey = new LongIntHashMap(-1);
+    private final BitSet deleted = new BitSet();
+    private final IntArrayList freeNodes = new IntArrayList();
+    private float[] vectors;
+    private long[] keys;
+    private int[] baseLinks;
+    private int[][] upperLinks;
+    private int size;
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    public HnswIndex(int dimensions, int maxLinks, int efConstruction, long seed) {
+        this.dimensions = dimensions;
+        this.maxLinks = maxLinks;
+        this.maxBaseLinks = maxLinks * 2;
+        this.efConstruction = efConstruction;
+        this.levelMultiplier = 1 / Math.log(maxLinks);
+        this.random = new SplittableRandom(seed);
+        allocate(1024);
+    }
+
+    public void add(long key, float[] vector) {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException("Expected " + dimensions + " dimensions but got " + vector.length);
+        }
+        remove(key);
+
+        int node = reusableNode();
+        int level = node >= 0 ? levelOf(node) : (int) (-Math.log(1 - random.nextDouble()) * levelMultiplier);
+        if (entryPoint < 0) {
+            node = insertNode(node, key, vector, level);
+            entryPoint = node;
+            maxLevel = level;
+            return;
+        }
+
+        // Find neighbours before touching the slot: a reused slot keeps routing
+        // searches with its old vector and links until it is relinked below.
+        int[][] neighbours = new int[Math.min(level, maxLevel) + 1][];
+        int current = entryPoint;
+        for (int layer = maxLevel; layer > level; layer--) {
+            current = greedyClosest(vector, current, layer);
+        }
+        for (int layer = neighbours.length - 1; layer >= 0; layer--) {
+            long[] candidates = without(searchLayer(vector, current, efConstruction, layer, false), node);
+            neighbours[layer] = selectNeighbours(candidates, maxLinks);
+            if (candidates.length > 0) {
+                current = node(candidates[0]);
+            }
+        }
+
+        node = insertNode(node, key, vector, level);
+        for (int layer = 0; layer < neighbours.length; layer++) {
+            for (int neighbour : neighbours[layer]) {
+                appendLink(node, layer, neighbour);
+                connect(neighbour, layer, node);
+            }
+        }
+        if (level > maxLevel) {
+            entryPoint = node;
+            maxLevel = level;
+        }
+    }
+
+    public boolean remove(long key) {
+        int node = nodesByKey.remove(key);
+        if (node < 0) {
+            return false;
+        }
+        deleted.set(node);
+        freeNodes.add(node);
+        return true;
+    }
+
+    public boolean contains(long key) {
+        return nodesByKey.containsKey(key);
+    }
+
+    /** Copy of the stored vector, or {@code null} if the key is not indexed. */
+    public float[] vector(long key) {
+        int node = nodesByKey.get(key);
+        return node < 0 ? null : Arrays.copyOfRange(vectors, node * dimensions, (node + 1) * dimensions);
+    }
+
+    public int size() {
+        return nodesByKey.size();
+    }
+
+    /** Live nodes plus tombstones, i.e. the slots the graph currently holds. */
+    int nodeCount() {
+        return size;
+    }
+
+    /**
+     * Approximate {@code k} most similar live vectors, best first, scored by
+     * cosine similarity. {@code ef} trades latency for recall and is raised to
+     * at least {@code k}.
+     */
+    public List<SearchHit> search(float[] query, int k, int ef) {
+        if (entryPoint < 0 || k < 1) {
+            return List.of();
+        }
+        int current = entryPoint;
+        for (int layer = maxLevel; layer > 0; layer--) {
+            current = greedyClosest(query, current, layer);
+        }
+        long[] candidates = searchLayer(query, current, Math.max(ef, k), 0, true);
+
+        List<SearchHit> hits = new ArrayList<>(k);
+        for (int i = 0; i < candidates.length && hits.size() < k; i++) {
+            hits.add(new SearchHit(keys[node(candidates[i])], 1 - distance(candidates[i])));
+        }
+        return hits;
+    }
+
+    // Any tombstoned slot except the entry point, whose links every search starts from.
+    private int reusableNode() {
+        for (int i = freeNodes.size() - 1; i >= 0; i--) {
+            int node = freeNodes.get(i);
+            if (node != entryPoint) {
+                freeNodes.swapRemove(i);
+                return node;
+            }
+        }
+        return -1;
+    }
+
+    private int levelOf(int node) {
+        return upperLinks[node] == null ? 0 : upperLinks[node].length / (maxLinks + 1);
+    }
+
+    // Writes the vector into a reused slot (node >= 0) or a new one, with no links yet.
+    private int insertNode(int node, long key, float[] vector, int level) {
+        if (node >= 0) {
+            deleted.clear(node);
+            for (int layer = 1; layer <= level; layer++) {
+                upperLinks[node][linkOffset(node, layer)] = 0;
+            }
+        } else {
+            node = size++;
+            ensureCapacity(size);
+            upperLinks[node] = level > 0 ? new int[level * (maxLinks + 1)] : null;
+        }
+        System.arraycopy(vector, 0, vectors, node * dimensions, dimensions);
+        keys[node] = key;
+        nodesByKey.put(key, node);
+        baseLinks[node * (maxBaseLinks + 1)] = 0;
+        return node;
+    }
+
+    private static long[] without(long[] candidates, int node) {
+        for (int i = 0; i < candidates.length; i++) {
+            if (node(candidates[i]) == node) {
+                long[] rest = new long[candidates.length - 1];
+                System.arraycopy(candidates, 0, rest, 0, i);
+                System.arraycopy(candidates, i + 1, rest, i, rest.length - i);
+                return rest;
+            }
+        }
+        return candidates;
+    }
+
+    private int greedyClosest(float[] query, int start, int layer) {
+        int current = start;
+        float currentDistance = distance(query, current);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            int[] links = links(current, layer);
+            int offset = linkOffset(current, layer);
+            for (int i = 1; i <= links[offset]; i++) {
+                int candidate = links[offset + i];
+                float candidateDistance = distance(query, candidate);
+                if (candidateDistance < currentDistance) {
+                    current = candidate;
+                    currentDistance = candidateDistance;
+                    improved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Beam search on one layer; returns up to ef packed (distance, node) pairs,
+     * closest first. With {@code liveOnly} tombstones are still expanded but
+     * never take a result slot, so they cannot crowd live nodes out of ef.
+     */
+    private long[] searchLayer(float[] query, int start, int ef, int layer, boolean liveOnly) {
+        Visited seen = visited.get();
+        seen.reset(size);
+        LongHeap candidates = LongHeap.minHeap(ef * 2);
+        LongHeap results = LongHeap.maxHeap(ef + 1);
+
+        long first = pack(distance(query, start), start);
+        seen.mark(start);
+        candidates.push(first);
+        if (!liveOnly || !deleted.get(start)) {
+            results.push(first);
+        }
+
+        while (!candidates.isEmpty()) {
+            long closest = candidates.pop();
+            if (results.size() >= ef && distance(closest) > distance(results.peek())) {
+                break;
+            }
+            int node = node(closest);
+            int[] links = links(node, layer);
+            int offset = linkOffset(node, layer);
+            for (int i = 1; i <= links[offset]; i++) {
+                int neighbour = links[offset + i];
+                if (!seen.mark(neighbour)) {
+                    continue;
+                }
+                float neighbourDistance = distance(query, neighbour);
+                if (results.size() < ef || neighbourDistance < distance(results.peek())) {
+                    long packed = pack(neighbourDistance, neighbour);
+                    candidates.push(packed);
+                    if (liveOnly && deleted.get(neighbour)) {
+                        continue;
+                    }
+                    results.push(packed);
+                    if (results.size() > ef) {
+                        results.pop();
+                    }
+                }
+            }
+        }
+        return results.drainAscending();
+    }
+
+    /**
+     * Neighbour selection heuristic: keep a candidate only if it is closer to
+     * the new node than to every neighbour already kept, which spreads links
+     * across clusters instead of spending them all on one.
+     */
+    private int[] selectNeighbours(long[] sortedCandidates, int max) {
+        IntArrayList selected = new IntArrayList(max);
+        for (int i = 0; i < sortedCandidates.length && selected.size() < max; i++) {
+            int candidate = node(sortedCandidates[i]);
+            float candidateDistance = distance(sortedCandidates[i]);
+            boolean diverse = true;
+            for (int j = 0; j < selected.size() && diverse; j++) {
+                diverse = distance(candidate, selected.get(j)) >= candidateDistance;
+            }
+            if (diverse) {
+                selected.add(candidate);
+            }
+        }
+        return selected.toArray();
+    }
+
+    private void connect(int node, int layer, int newNeighbour) {
+        int capacity = layer == 0 ? maxBaseLinks : maxLinks;
+        int[] links = links(node, layer);
+        int offset = linkOffset(node, layer);
+        int count = links[offset];
+        for (int i = 1; i <= count; i++) {
+            if (links[offset + i] == newNeighbour) {
+                return;
+            }
+        }
+        if (count < capacity) {
+            links[offset + 1 + count] = newNeighbour;
+            links[offset] = count + 1;
+            return;
+        }
+
+        // Full: re-select among the existing links plus the new one.
+        long[] candidates = new long[count + 1];
+        for (int i = 0; i < count; i++) {
+            int neighbour = links[offset + 1 + i];
+            candidates[i] = pack(distance(node, neighbour), neighbour);
+        }
+        candidates[count] = pack(distance(node, newNeighbour), newNeighbour);
+        Arrays.sort(candidates);
+        int[] kept = selectNeighbours(candidates, capacity);
+        System.arraycopy(kept, 0, links, offset + 1, kept.length);
+        links[offset] = kept.length;
+    }
+
+    private void appendLink(int node, int layer, int neighbour) {
+        int[] links = links(node, layer);
+        int offset = linkOffset(node, layer);
+        links[offset + 1 + links[offset]] = neighbour;
+        links[offset]++;
+    }
+
+    private int[] links(int node, int layer) {
+        return layer == 0 ? baseLinks : upperLinks[node];
+    }
+
+    private int linkOffset(int node, int layer) {
+        return layer == 0 ? node * (maxBaseLinks + 1) : (layer - 1) * (maxLinks + 1);
+    }
+
+    private float distance(float[] query, int node) {
+        float dot = 0;
+        int offset = node * dimensions;
+        for (int i = 0; i < dimensions; i++) {
+            dot += query[i] * vectors[offset + i];
+        }
+        return Math.max(0f, 1 - dot);
+    }
+
+    private float distance(int a, int b) {
+        float dot = 0;
+        int offsetA = a * dimensions;
+        int offsetB = b * dimensions;
+        for (int i = 0; i < dimensions; i++) {
+            dot += vectors[offsetA + i] * vectors[offsetB + i];
+        }
+        return Math.max(0f, 1 - dot);
+    }
+
+    // Non-negative floats keep their order when compared as raw int bits.
+    private static long pack(float distance, int node) {
+        return ((long) Float.floatToRawIntBits(distance) << 32) | node;
+    }
+
+    private static float distance(long packed) {
+        return Float.intBitsToFloat((int) (packed >>> 32));
+    }
+
+    private static int node(long packed) {
+        return (int) packed;
+    }
+
+    private void allocate(int capacity) {
+        vectors = new float[capacity * dimensions];
+        keys = new long[capacity];
+        baseLinks = new int[capacity * (maxBaseLinks + 1)];
+        upperLinks = new int[capacity][];
+    }
+
+    private void ensureCapacity(int nodes) {
+        if (nodes <= keys.length) {
+            return;
+        }
+        int capacity = Math.max(nodes, keys.length * 2);
+        vectors = Arrays.copyOf(vectors, capacity * dimensions);
+        keys = Arrays.copyOf(keys, capacity);
+        baseLinks = Arrays.copyOf(baseLinks, capacity * (maxBaseLinks + 1));
+        upperLinks = Arrays.copyOf(upperLinks, capacity);
+    }
+
+    // Epoch-stamped visited set, reused per thread to avoid clearing an array per search.
+    private static final class Visited {
+
+        private int[] marks = new int[0];
+        private int epoch;
+
+        void reset(int nodes) {
+            if (marks.length < nodes) {
+                marks = new int[Math.max(nodes, marks.length * 2)];
+                epoch = 0;
+            }
+            if (++epoch == Integer.MAX_VALUE) {
+                Arrays.fill(marks, 0);
+                epoch = 1;
+            }
+        }
+
+        /** Returns false if the node was already visited in this search. */
+        boolean mark(int node) {
+            if (marks[node] == epoch) {
+                return false;
+            }
+            marks[node] = epoch;
+            return true;
+        }
+    }
+}
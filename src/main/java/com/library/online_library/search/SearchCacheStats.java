@@ -0,0 +1,9 @@
+package com.library.online_library.search;
+
+/**
+ * Snapshot of the search-result cache counters. {@code estimatedBytes} is an
+ * approximation of the heap held by cached keys and id arrays.
+ */
+public record SearchCacheStats(long hits, long misses, double hitRate, int entries, long estimatedBytes,
+        long generation) {
+}
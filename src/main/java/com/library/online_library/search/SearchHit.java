@@ -0,0 +1,7 @@
+package com.library.online_library.search;
+
+/**
+ * A book id with the relevance score that ranked it.
+ */
+public record SearchHit(long bookId, float score) {
+}
@@ -0,0 +1,122 @@
+package com.library.online_library.search;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.library.online_library.index.BookChangeEvent;
+
+/**
+ * Bounded LRU cache of title/author search results, stored as book id arrays
+ * rather than entities. Every write bumps a global generation counter and each
+ * entry remembers the generation it was computed under, so invalidation is a
+ * single increment and an entry from before the latest write is never served.
+ * Callers must read {@link #generation()} before running the query they cache.
+ */
+@Component
+public class SearchResultCache {
+
+    // Rough per-entry overhead: map node, entry object, key record and two strings, array header
+    private static final int ENTRY_OVERHEAD_BYTES = 200;
+
+    private final int maxEntries;
+    private final int maxResultSize;
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final Map<Key, Entry> entries;
+    private long estimatedBytes;
+
+    public SearchResultCache(@Value("${library.search.cache.max-entries:1000}") int maxEntries,
+            @Value("${library.search.cache.max-result-size:1000}") int maxResultSize) {
+        this.maxEntries = maxEntries;
+        this.maxResultSize = maxResultSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    // After commit: a search that starts once the generation moved must already see the write
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangeEvent event) {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Cached ids for the search, or {@code null} when absent or computed before
+     * the latest write.
+     */
+    public synchronized long[] get(String title, String author) {
+        Key key = Key.of(title, author);
+        Entry entry = entries.get(key);
+        if (entry == null || entry.generation != generation.get()) {
+            if (entry != null) {
+                entries.remove(key);
+                estimatedBytes -= entry.bytes;
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.bookIds;
+    }
+
+    /**
+     * Caches the result of a search that started at {@code generation}. Results
+     * that are already stale or larger than the configured bound are dropped.
+     */
+    public synchronized void put(String title, String author, long generation, List<Long> bookIds) {
+        if (generation != this.generation.get() || bookIds.size() > maxResultSize || maxEntries <= 0) {
+            return;
+        }
+        Key key = Key.of(title, author);
+        long[] ids = new long[bookIds.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = bookIds.get(i);
+        }
+        Entry entry = new Entry(ids, generation, ENTRY_OVERHEAD_BYTES + 2L * (key.title.length() + key.author.length())
+                + 8L * ids.length);
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            estimatedBytes -= previous.bytes;
+        }
+        estimatedBytes += entry.bytes;
+        while (entries.size() > maxEntries) {
+            Map.Entry<Key, Entry> eldest = entries.entrySet().iterator().next();
+            estimatedBytes -= eldest.getValue().bytes;
+            entries.remove(eldest.getKey());
+        }
+    }
+
+    public synchronized SearchCacheStats stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long lookups = hitCount + missCount;
+        return new SearchCacheStats(hitCount, missCount, lookups == 0 ? 0.0 : (double) hitCount / lookups,
+                entries.size(), estimatedBytes, generation.get());
+    }
+
+    // Searches are case-insensitive, so keys are compared lower-cased; null and empty both mean "any"
+    private record Key(String title, String author) {
+
+        static Key of(String title, String author) {
+            return new Key(normalize(title), normalize(author));
+        }
+
+        private static String normalize(String value) {
+            return value == null ? "" : value.toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private record Entry(long[] bookIds, long generation, long bytes) {
+    }
+}
@@ -0,0 +1,131 @@
+package com.library.online_library.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.library.online_library.index.BookIndex;
+import com.library.online_library.model.Book;
+
+/**
+ * "More like this" over locally computed hashed TF-IDF vectors, served from an
+ * HNSW graph. During a rebuild vectors are only collected, so that every book
+ * is weighted with the IDF of the full catalog before the graph is built; after
+ * that, writes are vectorized with the current IDF and inserted directly.
+ */
+@Component
+public class SimilarBooksIndex implements BookIndex {
+
+    private static final long GRAPH_SEED = 42;
+
+    private final HashedTfIdfVectorizer vectorizer;
+    private final int maxLinks;
+    private final int efConstruction;
+    private final int efSearch;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final List<Long> pendingIds = new ArrayList<>();
+    private final List<float[]> pendingVectors = new ArrayList<>();
+    private HnswIndex graph;
+    private boolean bulkLoading;
+
+    public SimilarBooksIndex(@Value("${library.similar.dimensions:64}") int dimensions,
+            @Value("${library.similar.max-links:12}") int maxLinks,
+            @Value("${library.similar.ef-construction:64}") int efConstruction,
+            @Value("${library.similar.ef-search:64}") int efSearch) {
+        this.vectorizer = new HashedTfIdfVectorizer(dimensions);
+        this.maxLinks = maxLinks;
+        this.efConstruction = efConstruction;
+        this.efSearch = efSearch;
+        this.graph = new HnswIndex(dimensions, maxLinks, efConstruction, GRAPH_SEED);
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            vectorizer.clear();
+            pendingIds.clear();
+            pendingVectors.clear();
+            graph = new HnswIndex(vectorizer.dimensions(), maxLinks, efConstruction, GRAPH_SEED);
+            bulkLoading = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void index(Book book) {
+        float[] termFrequencies = vectorizer.termFrequencies(book);
+        lock.writeLock().lock();
+        try {
+            if (bulkLoading) {
+                pendingIds.add(book.getId());
+                pendingVectors.add(termFrequencies);
+                vectorizer.documentAdded(termFrequencies);
+                return;
+            }
+            removeVector(book.getId());
+            vectorizer.documentAdded(termFrequencies);
+            graph.add(book.getId(), vectorizer.weight(termFrequencies));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            removeVector(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void rebuildCompleted() {
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < pendingIds.size(); i++) {
+                graph.add(pendingIds.get(i), vectorizer.weight(pendingVectors.get(i)));
+            }
+            pendingIds.clear();
+            pendingVectors.clear();
+            bulkLoading = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Ids of the books most similar to the given one, best first; empty if it is not indexed. */
+    public List<SearchHit> similarTo(long bookId, int limit) {
+        lock.readLock().lock();
+        try {
+            float[] vector = graph.vector(bookId);
+            if (vector == null) {
+                return List.of();
+            }
+            List<SearchHit> hits = new ArrayList<>(limit);
+            for (SearchHit hit : graph.search(vector, limit + 1, Math.max(efSearch, limit + 1))) {
+                if (hit.bookId() != bookId && hits.size() < limit) {
+                    hits.add(hit);
+                }
+            }
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeVector(long bookId) {
+        float[] vector = graph.vector(bookId);
+        if (vector != null) {
+            vectorizer.documentRemoved(vector);
+            graph.remove(bookId);
+        }
+    }
+}
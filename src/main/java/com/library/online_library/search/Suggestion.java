@@ -0,0 +1,7 @@
+package com.library.online_library.search;
+
+/**
+ * An autocomplete entry: a title or author and the number of books behind it.
+ */
+public record Suggestion(String text, int weight) {
+}
@@ -0,0 +1,391 @@
+package com.library.online_library.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.library.online_library.index.BookIndex;
+import com.library.online_library.model.Book;
+import com.library.online_library.util.IntArrayList;
+import com.library.online_library.util.LongIntHashMap;
+
+/**
+ * Prefix suggestions over normalized titles and authors, backed by a radix
+ * trie. Every internal node caches the ids of its {@code k} heaviest entries,
+ * where an entry's weight is the number of books with that title or author, so
+ * a lookup is a walk down the prefix followed by a copy of at most k results.
+ * Edge labels are stored as offsets into the entry keys rather than as
+ * substrings. Writes re-rank only the nodes on the changed entry's path; during
+ * a rebuild the caches are filled once, bottom-up, at the end. Entries whose
+ * weight drops to zero stay in the trie until enough of them pile up, then the
+ * trie is rebuilt from the live entries only.
+ */
+@Component
+public class SuggestionIndex implements BookIndex {
+
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final int MIN_DEAD_ENTRIES_BEFORE_COMPACTION = 1024;
+
+    private final int topK;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Integer> entryIds = new HashMap<>();
+    private final List<String> keys = new ArrayList<>();
+    private final List<String> texts = new ArrayList<>();
+    private final IntArrayList weights = new IntArrayList();
+    private final LongIntHashMap titleEntries = new LongIntHashMap(-1);
+    private final LongIntHashMap authorEntries = new LongIntHashMap(-1);
+    private Node root = new Node(-1, 0, 0);
+    private boolean bulkLoading;
+    // Entries with weight zero, i.e. titles or authors no book uses any more
+    private int deadEntries;
+
+    public SuggestionIndex(@Value("${library.search.suggest.top-k:10}") int topK) {
+        this.topK = topK;
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            entryIds.clear();
+            keys.clear();
+            texts.clear();
+            weights.clear();
+            titleEntries.clear();
+            authorEntries.clear();
+            root = new Node(-1, 0, 0);
+            deadEntries = 0;
+            bulkLoading = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void index(Book book) {
+        lock.writeLock().lock();
+        try {
+            unlink(book.getId());
+            link(titleEntries, book.getId(), book.getTitle());
+            link(authorEntries, book.getId(), book.getAuthor());
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            unlink(bookId);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void rebuildCompleted() {
+        lock.writeLock().lock();
+        try {
+            bulkLoading = false;
+            if (!compactIfNeeded()) {
+                rankSubtree(root);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Heaviest titles and authors starting with {@code prefix}, at most {@code min(limit, k)}. */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit < 1) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Node node = find(key);
+            if (node == null) {
+                return List.of();
+            }
+            int[] ranked = node.top != null ? node.top : new int[] {node.entry};
+            List<Suggestion> suggestions = new ArrayList<>(Math.min(limit, ranked.length));
+            for (int entry : ranked) {
+                if (suggestions.size() == limit) {
+                    break;
+                }
+                if (entry >= 0 && weights.get(entry) > 0) {
+                    suggestions.add(new Suggestion(texts.get(entry), weights.get(entry)));
+                }
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static String normalize(String text) {
+        return String.join(" ", TextAnalyzer.tokenize(text));
+    }
+
+    private void link(LongIntHashMap entriesByBook, long bookId, String text) {
+        String key = normalize(text);
+        if (key.isEmpty()) {
+            return;
+        }
+        Integer entry = entryIds.get(key);
+        if (entry == null) {
+            entry = keys.size();
+            entryIds.put(key, entry);
+            keys.add(key);
+            texts.add(text.strip());
+            weights.add(0);
+            deadEntries++;
+            insert(key, entry);
+        }
+        entriesByBook.put(bookId, entry);
+        changeWeight(entry, 1);
+    }
+
+    private void unlink(long bookId) {
+        int titleEntry = titleEntries.remove(bookId);
+        if (titleEntry >= 0) {
+            changeWeight(titleEntry, -1);
+        }
+        int authorEntry = authorEntries.remove(bookId);
+        if (authorEntry >= 0) {
+            changeWeight(authorEntry, -1);
+        }
+    }
+
+    // Entries whose weight drops to zero keep their nodes until the next compaction.
+    private void changeWeight(int entry, int delta) {
+        int before = weights.get(entry);
+        weights.set(entry, before + delta);
+        if (before == 0) {
+            deadEntries--;
+        } else if (before + delta == 0) {
+            deadEntries++;
+        }
+        if (bulkLoading) {
+            return;
+        }
+        List<Node> path = pathTo(keys.get(entry));
+        for (int i = path.size() - 1; i >= 0; i--) {
+            rank(path.get(i));
+        }
+    }
+
+    int entryCount() {
+        lock.readLock().lock();
+        try {
+            return keys.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Rebuilds the trie from the live entries once a quarter of them are dead; returns whether it did.
+    private boolean compactIfNeeded() {
+        if (bulkLoading || deadEntries < MIN_DEAD_ENTRIES_BEFORE_COMPACTION || deadEntries * 4 < keys.size()) {
+            return false;
+        }
+        int[] remap = new int[keys.size()];
+        List<String> liveKeys = new ArrayList<>(keys.size() - deadEntries);
+        List<String> liveTexts = new ArrayList<>(keys.size() - deadEntries);
+        IntArrayList liveWeights = new IntArrayList(keys.size() - deadEntries);
+        entryIds.clear();
+        for (int entry = 0; entry < keys.size(); entry++) {
+            if (weights.get(entry) == 0) {
+                remap[entry] = -1;
+                continue;
+            }
+            remap[entry] = liveKeys.size();
+            entryIds.put(keys.get(entry), liveKeys.size());
+            liveKeys.add(keys.get(entry));
+            liveTexts.add(texts.get(entry));
+            liveWeights.add(weights.get(entry));
+        }
+        keys.clear();
+        keys.addAll(liveKeys);
+        texts.clear();
+        texts.addAll(liveTexts);
+        weights.clear();
+        for (int entry = 0; entry < liveWeights.size(); entry++) {
+            weights.add(liveWeights.get(entry));
+        }
+        // Overwriting values of existing keys does not move entries, so this is safe during iteration.
+        titleEntries.forEach((bookId, entry) -> titleEntries.put(bookId, remap[entry]));
+        authorEntries.forEach((bookId, entry) -> authorEntries.put(bookId, remap[entry]));
+
+        root = new Node(-1, 0, 0);
+        for (int entry = 0; entry < keys.size(); entry++) {
+            insert(keys.get(entry), entry);
+        }
+        rankSubtree(root);
+        deadEntries = 0;
+        return true;
+    }
+
+    private void insert(String key, int entry) {
+        Node node = root;
+        int position = 0;
+        while (position < key.length()) {
+            int childIndex = childIndex(node, key.charAt(position));
+            if (childIndex < 0) {
+                Node leaf = new Node(entry, position, key.length());
+                leaf.entry = entry;
+                addChild(node, -childIndex - 1, leaf);
+                return;
+            }
+            Node child = node.children[childIndex];
+            int common = commonPrefix(child, key, position);
+            if (common < child.labelLength()) {
+                Node middle = new Node(child.keyEntry, child.labelStart, child.labelStart + common);
+                child.labelStart += common;
+                middle.children = new Node[] {child};
+                node.children[childIndex] = middle;
+                child = middle;
+            }
+            node = child;
+            position += common;
+        }
+        node.entry = entry;
+    }
+
+    private Node find(String prefix) {
+        Node node = root;
+        int position = 0;
+        while (position < prefix.length()) {
+            int childIndex = childIndex(node, prefix.charAt(position));
+            if (childIndex < 0) {
+                return null;
+            }
+            Node child = node.children[childIndex];
+            int common = commonPrefix(child, prefix, position);
+            if (position + common == prefix.length()) {
+                return child;
+            }
+            if (common < child.labelLength()) {
+                return null;
+            }
+            node = child;
+            position += common;
+        }
+        return node;
+    }
+
+    private List<Node> pathTo(String key) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        int position = 0;
+        path.add(node);
+        while (position < key.length()) {
+            node = node.children[childIndex(node, key.charAt(position))];
+            position += node.labelLength();
+            path.add(node);
+        }
+        return path;
+    }
+
+    private void rankSubtree(Node node) {
+        for (Node child : node.children) {
+            rankSubtree(child);
+        }
+        rank(node);
+    }
+
+    // Merges the node's own entry with its children's cached rankings.
+    private void rank(Node node) {
+        if (node.children.length == 0) {
+            node.top = null;
+            return;
+        }
+        TopKCollector collector = new TopKCollector(topK);
+        offer(collector, node.entry);
+        for (Node child : node.children) {
+            if (child.top == null) {
+                offer(collector, child.entry);
+            } else {
+                for (int entry : child.top) {
+                    offer(collector, entry);
+                }
+            }
+        }
+        int[] ranked = new int[collector.size()];
+        collector.drainDescending(ranked, new float[ranked.length]);
+        node.top = ranked;
+    }
+
+    private void offer(TopKCollector collector, int entry) {
+        if (entry >= 0 && weights.get(entry) > 0) {
+            collector.collect(entry, weights.get(entry));
+        }
+    }
+
+    private int commonPrefix(Node child, String key, int position) {
+        String label = keys.get(child.keyEntry);
+        int max = Math.min(child.labelLength(), key.length() - position);
+        int common = 0;
+        while (common < max && label.charAt(child.labelStart + common) == key.charAt(position + common)) {
+            common++;
+        }
+        return common;
+    }
+
+    // Binary search on the first label character; returns -(insertionPoint + 1) when absent.
+    private int childIndex(Node node, char first) {
+        int low = 0;
+        int high = node.children.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            Node child = node.children[middle];
+            char current = keys.get(child.keyEntry).charAt(child.labelStart);
+            if (current < first) {
+                low = middle + 1;
+            } else if (current > first) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private static void addChild(Node node, int index, Node child) {
+        Node[] children = Arrays.copyOf(node.children, node.children.length + 1);
+        System.arraycopy(children, index, children, index + 1, node.children.length - index);
+        children[index] = child;
+        node.children = children;
+    }
+
+    private static final class Node {
+
+        private final int keyEntry;
+        private int labelStart;
+        private final int labelEnd;
+        private Node[] children = NO_CHILDREN;
+        private int entry = -1;
+        private int[] top;
+
+        Node(int keyEntry, int labelStart, int labelEnd) {
+            this.keyEntry = keyEntry;
+            this.labelStart = labelStart;
+            this.labelEnd = labelEnd;
+        }
+
+        int labelLength() {
+            return labelEnd - labelStart;
+        }
+    }
+}
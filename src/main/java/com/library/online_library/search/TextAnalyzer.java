@@ -0,0 +1,127 @@
+package com.library.online_library.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Turns book text into index terms: accent folding, lower-casing, splitting on
+ * anything that is not a letter or digit, and (for {@link #analyze}) stop-word
+ * removal plus a light English suffix stemmer. Queries and documents must go
+ * through the same method so that their terms line up.
+ */
+public final class TextAnalyzer {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "into", "is", "it",
+            "of", "on", "or", "the", "to", "with");
+
+    private TextAnalyzer() {
+    }
+
+    /** Strips combining accents and lower-cases the text. */
+    public static String normalize(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder folded = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                folded.append(c);
+            }
+        }
+        return folded.toString().toLowerCase(Locale.ROOT);
+    }
+
+    /** Normalized tokens, without stop-word removal or stemming. */
+    public static List<String> tokenize(String text) {
+        String normalized = normalize(text);
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean wordChar = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(normalized.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    public static boolean isStopWord(String token) {
+        return STOP_WORDS.contains(token);
+    }
+
+    /** Index terms: tokens minus stop words, stemmed. */
+    public static List<String> analyze(String text) {
+        List<String> tokens = tokenize(text);
+        List<String> terms = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            if (!STOP_WORDS.contains(token)) {
+                terms.add(stem(token));
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Conservative suffix stripping for plurals, -ing, -ed and -er. It conflates
+     * "programming"/"programmers"/"program" without the over-stemming of a full
+     * Porter implementation, which hurts short catalog fields more than it helps.
+     */
+    static String stem(String term) {
+        int length = term.length();
+        if (length <= 3 || !Character.isLetter(term.charAt(length - 1))) {
+            return term;
+        }
+        if (term.endsWith("ies") && length > 4) {
+            return term.substring(0, length - 3) + "y";
+        }
+        if (term.endsWith("sses")) {
+            return term.substring(0, length - 2);
+        }
+        if (term.endsWith("es") && length > 4 && endsWithSibilant(term, length - 2)) {
+            return term.substring(0, length - 2);
+        }
+        if (term.endsWith("s") && !term.endsWith("ss") && !term.endsWith("us") && !term.endsWith("is")) {
+            return stem(term.substring(0, length - 1));
+        }
+        if (term.endsWith("ing") && length > 5) {
+            return undouble(term.substring(0, length - 3));
+        }
+        if (term.endsWith("ed") && !term.endsWith("eed") && length > 4) {
+            return undouble(term.substring(0, length - 2));
+        }
+        if (term.endsWith("er") && length > 5) {
+            return undouble(term.substring(0, length - 2));
+        }
+        return term;
+    }
+
+    private static boolean endsWithSibilant(String term, int end) {
+        char last = term.charAt(end - 1);
+        if (last == 'x' || last == 'z') {
+            return true;
+        }
+        return end >= 2 && term.charAt(end - 1) == 'h'
+                && (term.charAt(end - 2) == 'c' || term.charAt(end - 2) == 's');
+    }
+
+    // "programm" -> "program", "runn" -> "run", but keep "fall", "pass", "buzz".
+    private static String undouble(String stem) {
+        int length = stem.length();
+        if (length >= 3 && stem.charAt(length - 1) == stem.charAt(length - 2)) {
+            char c = stem.charAt(length - 1);
+            if (c != 'l' && c != 's' && c != 'z' && "aeiou".indexOf(c) < 0) {
+                return stem.substring(0, length - 1);
+            }
+        }
+        return stem;
+    }
+}
@@ -0,0 +1,105 @@
+package com.library.online_library.search;
+
+/**
+ * Keeps the {@code k} highest-scoring documents seen so far in a bounded
+ * min-heap of primitives, so collecting from n candidates costs O(n log k)
+ * and never allocates per candidate. Ties go to the lower document number.
+ */
+public class TopKCollector {
+
+    private final int[] docs;
+    private final float[] scores;
+    private int size;
+
+    public TopKCollector(int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k must be positive: " + k);
+        }
+        docs = new int[k];
+        scores = new float[k];
+    }
+
+    public void collect(int doc, float score) {
+        if (size < docs.length) {
+            docs[size] = doc;
+            scores[size] = score;
+            siftUp(size++);
+        } else if (lessThan(docs[0], scores[0], doc, score)) {
+            docs[0] = doc;
+            scores[0] = score;
+            siftDown(0);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Lowest score currently kept, or negative infinity while the heap is not full. */
+    public float threshold() {
+        return size < docs.length ? Float.NEGATIVE_INFINITY : scores[0];
+    }
+
+    /**
+     * Drains the heap into {@code outDocs}/{@code outScores}, best first, and
+     * returns the number of results. The collector is empty afterwards.
+     */
+    public int drainDescending(int[] outDocs, float[] outScores) {
+        int count = size;
+        for (int i = count - 1; i >= 0; i--) {
+            outDocs[i] = docs[0];
+            outScores[i] = scores[0];
+            size--;
+            if (size > 0) {
+                docs[0] = docs[size];
+                scores[0] = scores[size];
+                siftDown(0);
+            }
+        }
+        return count;
+    }
+
+    // Orders by score, then prefers the lower doc number on ties.
+    private static boolean lessThan(int docA, float scoreA, int docB, float scoreB) {
+        return scoreA < scoreB || (scoreA == scoreB && docA > docB);
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!lessThan(docs[index], scores[index], docs[parent], scores[parent])) {
+                return;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int smallest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && lessThan(docs[left], scores[left], docs[smallest], scores[smallest])) {
+                smallest = left;
+            }
+            if (right < size && lessThan(docs[right], scores[right], docs[smallest], scores[smallest])) {
+                smallest = right;
+            }
+            if (smallest == index) {
+                return;
+            }
+            swap(index, smallest);
+            index = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int doc = docs[a];
+        docs[a] = docs[b];
+        docs[b] = doc;
+        float score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+    }
+}
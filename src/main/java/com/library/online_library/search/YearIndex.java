@@ -0,0 +1,409 @@
+package com.library.online_library.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.library.online_library.index.BookIndex;
+import com.library.online_library.model.Book;
+import com.library.online_library.util.LongIntHashMap;
+
+/**
+ * Columnar snapshot of publication years for range filters and year ordering.
+ * The snapshot holds book ids sorted ascending (a book's position there is its
+ * ordinal) plus a year column sorted by (year, id) with the matching ordinals,
+ * so a range is two binary searches and a contiguous slice that is paged by
+ * position. Only an id filter is materialized, as a bitset over ordinals.
+ * Writes go to a small overlay of pending changes that queries merge in, and
+ * the snapshot is rebuilt once the overlay grows past a threshold.
+ */
+@Component
+public class YearIndex implements BookIndex {
+
+    private static final int REMOVED = 0;
+
+    private final int maxPendingChanges;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongIntHashMap yearsByBookId = new LongIntHashMap(-1);
+    private final LongIntHashMap pending = new LongIntHashMap(-1);
+    private Snapshot snapshot = Snapshot.EMPTY;
+    private boolean bulkLoading;
+
+    public YearIndex(@Value("${library.search.year.max-pending-changes:4096}") int maxPendingChanges) {
+        this.maxPendingChanges = maxPendingChanges;
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            yearsByBookId.clear();
+            pending.clear();
+            snapshot = Snapshot.EMPTY;
+            bulkLoading = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void index(Book book) {
+        lock.writeLock().lock();
+        try {
+            yearsByBookId.put(book.getId(), book.getPublicationYear());
+            if (!bulkLoading) {
+                pending.put(book.getId(), book.getPublicationYear());
+                refreshIfNeeded();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            if (yearsByBookId.remove(bookId) >= 0 && !bulkLoading) {
+                pending.put(bookId, REMOVED);
+                refreshIfNeeded();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void rebuildCompleted() {
+        lock.writeLock().lock();
+        try {
+            snapshot = Snapshot.of(yearsByBookId);
+            pending.clear();
+            bulkLoading = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Books published between {@code minYear} and {@code maxYear} inclusive,
+     * ordered by year (then id) and paged. When {@code restrictTo} is given,
+     * only those books are considered.
+     */
+    public YearRangeResult query(int minYear, int maxYear, boolean descending,
+            Collection<Long> restrictTo, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            Snapshot current = snapshot;
+            int from = current.lowerBound(minYear);
+            int to = current.lowerBound(maxYear == Integer.MAX_VALUE ? maxYear : maxYear + 1);
+
+            // Only an id filter needs a bitset; an unfiltered range is the slice itself.
+            BitSet matches = null;
+            long snapshotTotal = to - from;
+            if (restrictTo != null) {
+                matches = new BitSet(current.size());
+                snapshotTotal = 0;
+                for (Long bookId : restrictTo) {
+                    int ordinal = current.ordinalOf(bookId);
+                    if (ordinal >= 0 && !matches.get(ordinal) && inRange(current.yearOf(ordinal), minYear, maxYear)) {
+                        matches.set(ordinal);
+                        snapshotTotal++;
+                    }
+                }
+            }
+
+            // Pending changes override whatever the snapshot says about those books.
+            LongIntHashMap masked = new LongIntHashMap(-1);
+            List<long[]> changed = new ArrayList<>();
+            BitSet filter = matches;
+            pending.forEach((bookId, year) -> {
+                int ordinal = current.ordinalOf(bookId);
+                if (ordinal >= 0 && inRange(current.yearOf(ordinal), minYear, maxYear)
+                        && (filter == null || filter.get(ordinal))) {
+                    masked.put(ordinal, 1);
+                }
+                if (year != REMOVED && inRange(year, minYear, maxYear)
+                        && (restrictTo == null || restrictTo.contains(bookId))) {
+                    changed.add(new long[] {year, bookId});
+                }
+            });
+            changed.sort((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+
+            long total = snapshotTotal - masked.size() + changed.size();
+            List<Long> page = new ArrayList<>(Math.max(0, Math.min(limit, (int) Math.min(total, Integer.MAX_VALUE))));
+            int skipped = 0;
+            int position = descending ? to - 1 : from;
+            int next = descending ? changed.size() - 1 : 0;
+            if (matches == null && offset > 0) {
+                // Jump to the offset instead of walking to it; at most the pending changes are walked.
+                int[] maskedPositions = new int[masked.size()];
+                int[] count = {0};
+                masked.forEach((ordinal, one) -> maskedPositions[count[0]++] = current.positionOf((int) ordinal));
+                Arrays.sort(maskedPositions);
+                int[] start = descending
+                        ? seekDescending(current, from, to, maskedPositions, changed, offset)
+                        : seekAscending(current, from, to, maskedPositions, changed, offset);
+                if (start != null) {
+                    position = start[0];
+                    next = start[1];
+                    skipped = start[2];
+                }
+            }
+            int step = descending ? -1 : 1;
+            while (page.size() < limit) {
+                boolean snapshotLeft = descending ? position >= from : position < to;
+                if (snapshotLeft && excluded(current.ordinals[position], matches, masked)) {
+                    position += step;
+                    continue;
+                }
+                boolean changedLeft = next >= 0 && next < changed.size();
+                if (!snapshotLeft && !changedLeft) {
+                    break;
+                }
+                long bookId;
+                if (changedLeft && (!snapshotLeft || comesFirst(changed.get(next), current, position, descending))) {
+                    bookId = changed.get(next)[1];
+                    next += step;
+                } else {
+                    bookId = current.ids[current.ordinals[position]];
+                    position += step;
+                }
+                if (skipped < offset) {
+                    skipped++;
+                } else {
+                    page.add(bookId);
+                }
+            }
+            return new YearRangeResult(page, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Accepts books published between {@code minYear} and {@code maxYear}
+     * inclusive, so ranked searches can drop out-of-range books before cutting
+     * to their limit. Reads the live years, pending changes included.
+     */
+    public LongPredicate publishedBetween(int minYear, int maxYear) {
+        return bookId -> {
+            lock.readLock().lock();
+            try {
+                int year = yearsByBookId.get(bookId);
+                return year != -1 && inRange(year, minYear, maxYear);
+            } finally {
+                lock.readLock().unlock();
+            }
+        };
+    }
+
+    /**
+     * Last snapshot position whose merged rank (books ahead of it once masked
+     * positions are dropped and pending changes merged in) is at most
+     * {@code offset}, with the pending-change cursor and that rank; the rank
+     * only grows with the position, so this is a binary search. Null when the
+     * offset falls among changes sorting before the whole slice.
+     */
+    private static int[] seekAscending(Snapshot current, int from, int to, int[] maskedPositions,
+            List<long[]> changed, int offset) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (rankAscending(current, from, to, maskedPositions, changed, middle) <= offset) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        int rank = rankAscending(current, from, to, maskedPositions, changed, low);
+        if (rank > offset) {
+            return null;
+        }
+        int next = low == to ? changed.size() : changesBefore(changed, current, low, false);
+        return new int[] {low, next, rank};
+    }
+
+    private static int rankAscending(Snapshot current, int from, int to, int[] maskedPositions,
+            List<long[]> changed, int position) {
+        int changesBefore = position == to ? changed.size() : changesBefore(changed, current, position, false);
+        return position - from - countBelow(maskedPositions, position) + changesBefore;
+    }
+
+    // Mirror of seekAscending, walking the slice from its end.
+    private static int[] seekDescending(Snapshot current, int from, int to, int[] maskedPositions,
+            List<long[]> changed, int offset) {
+        int low = from - 1;
+        int high = to - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (rankDescending(current, from, to, maskedPositions, changed, middle) <= offset) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        int rank = rankDescending(current, from, to, maskedPositions, changed, low);
+        if (rank > offset) {
+            return null;
+        }
+        int next = low < from ? -1 : changesBefore(changed, current, low, true) - 1;
+        return new int[] {low, next, rank};
+    }
+
+    private static int rankDescending(Snapshot current, int from, int to, int[] maskedPositions,
+            List<long[]> changed, int position) {
+        int changesAfter = position < from ? changed.size()
+                : changed.size() - changesBefore(changed, current, position, true);
+        int maskedAfter = maskedPositions.length - countBelow(maskedPositions, position + 1);
+        return to - 1 - position - maskedAfter + changesAfter;
+    }
+
+    // Pending changes (sorted by year, then id) ordered before, or also at, the book at a snapshot position.
+    private static int changesBefore(List<long[]> changed, Snapshot current, int position, boolean inclusive) {
+        int year = current.years[position];
+        long bookId = current.ids[current.ordinals[position]];
+        int low = 0;
+        int high = changed.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            long[] change = changed.get(middle);
+            int order = change[0] != year ? Long.compare(change[0], year) : Long.compare(change[1], bookId);
+            if (order < 0 || (inclusive && order == 0)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static int countBelow(int[] sorted, int value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sorted[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static boolean inRange(int year, int minYear, int maxYear) {
+        return year >= minYear && year <= maxYear;
+    }
+
+    private static boolean excluded(int ordinal, BitSet matches, LongIntHashMap masked) {
+        return (matches != null && !matches.get(ordinal)) || (!masked.isEmpty() && masked.containsKey(ordinal));
+    }
+
+    private static boolean comesFirst(long[] change, Snapshot current, int position, boolean descending) {
+        int snapshotYear = current.years[position];
+        long snapshotId = current.ids[current.ordinals[position]];
+        int order = change[0] != snapshotYear ? Long.compare(change[0], snapshotYear) : Long.compare(change[1], snapshotId);
+        return descending ? order > 0 : order < 0;
+    }
+
+    private void refreshIfNeeded() {
+        if (pending.size() > maxPendingChanges) {
+            snapshot = Snapshot.of(yearsByBookId);
+            pending.clear();
+        }
+    }
+
+    private static final class Snapshot {
+
+        static final Snapshot EMPTY = new Snapshot(new long[0], new int[0], new int[0], new int[0]);
+
+        final long[] ids;
+        final int[] years;
+        final int[] ordinals;
+        // Year per ordinal, to tell whether a pending change hides a book inside the range.
+        final int[] yearsByOrdinal;
+
+        private Snapshot(long[] ids, int[] years, int[] ordinals, int[] yearsByOrdinal) {
+            this.ids = ids;
+            this.years = years;
+            this.ordinals = ordinals;
+            this.yearsByOrdinal = yearsByOrdinal;
+        }
+
+        static Snapshot of(LongIntHashMap yearsByBookId) {
+            int size = yearsByBookId.size();
+            long[] ids = new long[size];
+            int[] count = {0};
+            yearsByBookId.forEach((bookId, year) -> ids[count[0]++] = bookId);
+            Arrays.sort(ids);
+
+            // Sorting (year, ordinal) pairs packed into longs orders by year, then id.
+            long[] packed = new long[size];
+            int[] yearsByOrdinal = new int[size];
+            for (int ordinal = 0; ordinal < size; ordinal++) {
+                yearsByOrdinal[ordinal] = yearsByBookId.get(ids[ordinal]);
+                packed[ordinal] = ((long) yearsByOrdinal[ordinal] << 32) | ordinal;
+            }
+            Arrays.sort(packed);
+            int[] years = new int[size];
+            int[] ordinals = new int[size];
+            for (int position = 0; position < size; position++) {
+                years[position] = (int) (packed[position] >>> 32);
+                ordinals[position] = (int) packed[position];
+            }
+            return new Snapshot(ids, years, ordinals, yearsByOrdinal);
+        }
+
+        int size() {
+            return ids.length;
+        }
+
+        int ordinalOf(long bookId) {
+            int ordinal = Arrays.binarySearch(ids, bookId);
+            return ordinal >= 0 ? ordinal : -1;
+        }
+
+        int lowerBound(int year) {
+            int low = 0;
+            int high = years.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (years[middle] < year) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        // Ids ascend with ordinals, so (year, ordinal) sorts like (year, id).
+        int positionOf(int ordinal) {
+            int year = yearsByOrdinal[ordinal];
+            int low = 0;
+            int high = years.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (years[middle] < year || (years[middle] == year && ordinals[middle] < ordinal)) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        int yearOf(int ordinal) {
+            return yearsByOrdinal[ordinal];
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.library.online_library.search;
+
+import java.util.List;
+
+/**
+ * One page of book ids from a publication-year query, with the total number
+ * of matches across all pages.
+ */
+public record YearRangeResult(List<Long> bookIds, long total) {
+}
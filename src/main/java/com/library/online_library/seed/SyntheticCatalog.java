@@ -0,0 +1,184 @@
+package com.library.online_library.seed;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import com.library.online_library.model.Book;
+
+/**
+ * Deterministic generator of realistic-looking books for scale testing. Row
+ * {@code n} depends only on the seed and {@code n}, so any range of rows can be
+ * generated on any thread. Authors follow a Zipf distribution (a few prolific
+ * authors, a long tail of one-book ones), titles run from one word to the
+ * 50-character limit, publication years lean towards recent decades, and every
+ * row gets a distinct, check-digit-valid ISBN-13.
+ */
+public class SyntheticCatalog {
+
+    /** Rows beyond this would run out of distinct 8-digit ISBN bodies. */
+    public static final long MAX_BOOKS = 100_000_000L;
+
+    private static final long ISBN_BODIES = 100_000_000L;
+    private static final int ISBN_BODY_DIGITS = 8;
+    // Coprime with 10^8, so index -> body is a bijection that scatters consecutive rows
+    private static final long ISBN_MULTIPLIER = 387_420_489L;
+    private static final long ISBN_OFFSET = 104_729L;
+    // 979-1 is a real ISBN range (groups 979-10 to 979-12); the sample data only uses 978 and 979-8
+    private static final String ISBN_PREFIX = "9791";
+
+    private static final int MIN_YEAR = 1450;
+    private static final int MAX_YEAR = 2025;
+    private static final int MAX_TITLE_LENGTH = 50;
+
+    private static final String[] FIRST_NAMES = {
+        "Anna", "Brian", "Carla", "David", "Elena", "Frank", "Grace", "Henry", "Irina", "James", "Karen", "Liam",
+        "Maria", "Nikolai", "Olivia", "Pavel", "Quinn", "Rosa", "Samuel", "Tara", "Victor", "Wendy", "Xavier", "Yara",
+        "Adrian", "Bianca", "Cristian", "Diana", "Emil", "Fatima", "George", "Hana", "Ioana", "Jonas", "Keiko", "Lucas",
+        "Mihai", "Nadia", "Oscar", "Priya", "Radu", "Sofia", "Tomas", "Ursula", "Vlad", "Wei", "Yusuf", "Zoe"
+    };
+    private static final String[] LAST_NAMES = {
+        "Smith", "Goetz", "Martin", "Fowler", "Bloch", "Kim", "Hunt", "Gamma", "Cormen", "Walls", "Simpson", "Brooks",
+        "Ionescu", "Popescu", "Novak", "Schmidt", "Rossi", "Garcia", "Silva", "Tanaka", "Nguyen", "Okafor", "Larsen",
+        "Anderson", "Becker", "Costa", "Dumitrescu", "Eriksson", "Fischer", "Horvath", "Ivanova", "Jensen", "Kowalski",
+        "Lopez", "Muller", "Nakamura", "Oliveira", "Petrov", "Quinlan", "Rahman", "Sato", "Thompson", "Usman",
+        "Vasquez", "Weber", "Yamamoto", "Zhang", "Moreau"
+    };
+    private static final String[] WORDS = {
+        "java", "spring", "clean", "code", "design", "patterns", "practice", "modern", "deep", "learning", "data",
+        "systems", "distributed", "art", "science", "programming", "effective", "advanced", "guide", "introduction",
+        "algorithms", "structures", "architecture", "microservices", "cloud", "native", "secure", "testing", "agile",
+        "domain", "driven", "functional", "reactive", "concurrency", "performance", "python", "kotlin", "rust",
+        "compilers", "networks", "databases", "machine", "intelligence", "history", "philosophy", "mathematics",
+        "statistics", "economics", "garden", "ocean", "mountain", "winter", "summer", "river", "city", "empire",
+        "journey", "secret", "silent", "lost", "last", "first", "hidden", "dark", "light", "night", "shadow", "fire",
+        "stone", "glass", "iron", "golden", "broken", "wild", "quiet", "northern", "southern", "ancient", "future",
+        "house", "road", "world", "life", "mind", "heart", "time", "war", "peace", "storm", "island", "forest",
+        "letters", "stories", "notes", "essays", "lessons", "rules", "principles", "handbook", "cookbook", "workshop"
+    };
+    private static final String[] CONNECTORS = {"of", "and", "in", "for", "the"};
+    private static final String[] TOPICS = {
+        "software", "history", "science", "travel", "cooking", "music", "politics", "nature", "family", "business"
+    };
+
+    private final long seed;
+    private final int authorCount;
+    private final double[] authorCdf;
+
+    public SyntheticCatalog(long seed, int authorCount, double zipfExponent) {
+        int maxAuthors = FIRST_NAMES.length * LAST_NAMES.length * 27;
+        if (authorCount < 1 || authorCount > maxAuthors) {
+            throw new IllegalArgumentException("Author count must be between 1 and " + maxAuthors);
+        }
+        if (zipfExponent < 0) {
+            throw new IllegalArgumentException("Zipf exponent must not be negative");
+        }
+        this.seed = seed;
+        this.authorCount = authorCount;
+        this.authorCdf = zipfCdf(authorCount, zipfExponent);
+    }
+
+    /** The book at row {@code index} (0-based), without an id. */
+    public Book book(long index) {
+        if (index < 0 || index >= MAX_BOOKS) {
+            throw new IllegalArgumentException("Row index must be between 0 and " + (MAX_BOOKS - 1));
+        }
+        SplittableRandom random = new SplittableRandom(seed + index * 0x9E3779B97F4A7C15L);
+        return new Book(title(random), author(authorRank(random.nextDouble())), isbn(index), year(random),
+                description(random));
+    }
+
+    /** Name of the author with the given popularity rank (0 is the most prolific). */
+    public String author(int rank) {
+        int first = rank % FIRST_NAMES.length;
+        int last = (rank / FIRST_NAMES.length) % LAST_NAMES.length;
+        int initial = rank / (FIRST_NAMES.length * LAST_NAMES.length);
+        return FIRST_NAMES[first] + " " + (initial == 0 ? "" : (char) ('A' + initial - 1) + ". ") + LAST_NAMES[last];
+    }
+
+    int authorRank(double uniform) {
+        int rank = Arrays.binarySearch(authorCdf, uniform);
+        if (rank < 0) {
+            rank = -rank - 1;
+        }
+        return Math.min(rank, authorCount - 1);
+    }
+
+    static String isbn(long index) {
+        long body = (index * ISBN_MULTIPLIER + ISBN_OFFSET) % ISBN_BODIES;
+        StringBuilder isbn = new StringBuilder(13).append(ISBN_PREFIX);
+        String digits = Long.toString(body);
+        for (int i = digits.length(); i < ISBN_BODY_DIGITS; i++) {
+            isbn.append('0');
+        }
+        isbn.append(digits);
+        return isbn.append(checkDigit(isbn)).toString();
+    }
+
+    // ISBN-13 check digit: weights alternate 1 and 3 over the first twelve digits
+    static int checkDigit(CharSequence first12) {
+        int sum = 0;
+        for (int i = 0; i < 12; i++) {
+            int digit = first12.charAt(i) - '0';
+            sum += (i % 2 == 0) ? digit : digit * 3;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    private static double[] zipfCdf(int count, double exponent) {
+        double[] cdf = new double[count];
+        double total = 0;
+        for (int rank = 0; rank < count; rank++) {
+            total += 1 / Math.pow(rank + 1, exponent);
+            cdf[rank] = total;
+        }
+        for (int rank = 0; rank < count; rank++) {
+            cdf[rank] /= total;
+        }
+        return cdf;
+    }
+
+    // Mostly 2-5 words, occasionally a single word or a long subtitle; words skewed towards the common ones
+    private static String title(SplittableRandom random) {
+        double shape = random.nextDouble();
+        int words = shape < 0.1 ? 1 : shape < 0.85 ? 2 + random.nextInt(4) : 6 + random.nextInt(5);
+        StringBuilder title = new StringBuilder();
+        if (random.nextInt(5) == 0) {
+            title.append("The");
+        }
+        for (int i = 0; i < words; i++) {
+            String word = (i > 0 && i < words - 1 && random.nextInt(6) == 0)
+                    ? CONNECTORS[random.nextInt(CONNECTORS.length)]
+                    : capitalize(WORDS[skewed(random, WORDS.length)]);
+            if (title.length() + 1 + word.length() > MAX_TITLE_LENGTH) {
+                break;
+            }
+            if (!title.isEmpty()) {
+                title.append(' ');
+            }
+            title.append(word);
+        }
+        return title.toString();
+    }
+
+    private static int year(SplittableRandom random) {
+        double u = random.nextDouble();
+        return MAX_YEAR - (int) (u * u * u * (MAX_YEAR - MIN_YEAR));
+    }
+
+    private static String description(SplittableRandom random) {
+        if (random.nextInt(10) < 3) {
+            return null;
+        }
+        return "A book about " + WORDS[skewed(random, WORDS.length)] + " and "
+                + WORDS[skewed(random, WORDS.length)] + " for readers of " + TOPICS[random.nextInt(TOPICS.length)] + ".";
+    }
+
+    private static int skewed(SplittableRandom random, int bound) {
+        double u = random.nextDouble();
+        return (int) (u * u * bound);
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
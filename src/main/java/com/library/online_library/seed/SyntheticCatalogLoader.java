@@ -0,0 +1,113 @@
+package com.library.online_library.seed;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.library.online_library.datasource.ReplicationStandIn;
+import com.library.online_library.model.Book;
+
+/**
+ * Fills an empty catalog with {@link SyntheticCatalog} rows (activate with
+ * spring.profiles.active=synthetic). Rows are generated and inserted in
+ * parallel, one JDBC batch per task, bypassing JPA and the change events. It
+ * runs before the application is ready, so the index rebuild and the book
+ * count reconciliation at startup pick the rows up.
+ */
+@Component
+@Profile("synthetic")
+public class SyntheticCatalogLoader implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SyntheticCatalogLoader.class);
+    private static final String INSERT = "INSERT INTO books (title, author, isbn, publication_year, description, version) "
+            + "VALUES (?, ?, ?, ?, ?, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectProvider<ReplicationStandIn> replication;
+    private final SyntheticCatalog catalog;
+    private final long books;
+    private final int batchSize;
+    private final int threads;
+
+    public SyntheticCatalogLoader(DataSource dataSource, ObjectProvider<ReplicationStandIn> replication,
+            @Value("${library.synthetic.books:1000000}") long books,
+            @Value("${library.synthetic.seed:42}") long seed,
+            @Value("${library.synthetic.authors:20000}") int authors,
+            @Value("${library.synthetic.zipf-exponent:1.07}") double zipfExponent,
+            @Value("${library.synthetic.batch-size:5000}") int batchSize,
+            @Value("${library.synthetic.threads:4}") int threads) {
+        if (books < 0 || books > SyntheticCatalog.MAX_BOOKS) {
+            throw new IllegalArgumentException("library.synthetic.books must be between 0 and "
+                    + SyntheticCatalog.MAX_BOOKS);
+        }
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.replication = replication;
+        this.catalog = new SyntheticCatalog(seed, authors, zipfExponent);
+        this.books = books;
+        this.batchSize = Math.max(1, batchSize);
+        this.threads = Math.max(1, threads);
+    }
+
+    @Override
+    public void run(String... args) throws InterruptedException {
+        Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM books", Long.class);
+        if (existing != null && existing > 0) {
+            log.info("Catalog already has {} books, skipping synthetic generation", existing);
+            return;
+        }
+
+        long start = System.nanoTime();
+        AtomicLong inserted = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> batches = new ArrayList<>();
+            for (long from = 0; from < books; from += batchSize) {
+                long batchStart = from;
+                long batchEnd = Math.min(books, from + batchSize);
+                batches.add(executor.submit(() -> insert(batchStart, batchEnd, inserted)));
+            }
+            for (Future<?> batch : batches) {
+                batch.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Synthetic catalog generation failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        log.info("Generated {} synthetic books in {} ms ({} rows/s)", inserted.get(), millis,
+                inserted.get() * 1000 / millis);
+        // The rows skip the change log, so a replica has to be re-copied rather than caught up
+        replication.ifAvailable(ReplicationStandIn::fullSync);
+    }
+
+    private void insert(long from, long to, AtomicLong inserted) {
+        List<Object[]> rows = new ArrayList<>((int) (to - from));
+        for (long index = from; index < to; index++) {
+            Book book = catalog.book(index);
+            rows.add(new Object[] {book.getTitle(), book.getAuthor(), book.getIsbn(), book.getPublicationYear(),
+                    book.getDescription()});
+        }
+        jdbcTemplate.batchUpdate(INSERT, rows);
+        long total = inserted.addAndGet(rows.size());
+        if (total / 1_000_000 != (total - rows.size()) / 1_000_000) {
+            log.info("Generated {} of {} synthetic books", total, books);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.library.online_library.service;
+
+import com.library.online_library.model.BookChange;
+
+/**
+ * Published by {@link ChangeFeedService} once a change row is written inside
+ * the writer's transaction; delivered to the feed only after that commit.
+ */
+record BookChangeRecorded(BookChange change) {
+}
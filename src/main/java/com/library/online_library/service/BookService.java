@@ -1,40 +1,180 @@
 package com.library.online_library.service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.function.LongPredicate;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.library.online_library.datasource.ReadWriteRoutingDataSource;
+import com.library.online_library.index.BookChangeEvent;
+import com.library.online_library.index.BookCounter;
 import com.library.online_library.model.Book;
 import com.library.online_library.repository.BookRepository;
+import com.library.online_library.search.Bm25Index;
+import com.library.online_library.search.FacetIndex;
+import com.library.online_library.search.Facets;
+import com.library.online_library.search.FuzzyIndex;
+import com.library.online_library.search.SearchCacheStats;
+import com.library.online_library.search.SearchHit;
+import com.library.online_library.search.SearchResultCache;
+import com.library.online_library.search.SimilarBooksIndex;
+import com.library.online_library.search.Suggestion;
+import com.library.online_library.search.SuggestionIndex;
+import com.library.online_library.search.YearIndex;
+import com.library.online_library.search.YearRangeResult;
 
 @Service
 public class BookService {
 
+    static final int MAX_SEARCH_RESULTS = 100;
+
     private final BookRepository bookRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Bm25Index bm25Index;
+    private final FuzzyIndex fuzzyIndex;
+    private final SuggestionIndex suggestionIndex;
+    private final SimilarBooksIndex similarBooksIndex;
+    private final FacetIndex facetIndex;
+    private final YearIndex yearIndex;
+    private final SearchResultCache searchResultCache;
+    private final BookCounter bookCounter;
+    private final ObjectProvider<ReadWriteRoutingDataSource> readRouting;
 
-    public BookService(BookRepository bookRepository) {
+    public BookService(BookRepository bookRepository, ApplicationEventPublisher eventPublisher,
+            Bm25Index bm25Index, FuzzyIndex fuzzyIndex, SuggestionIndex suggestionIndex,
+            SimilarBooksIndex similarBooksIndex, FacetIndex facetIndex, YearIndex yearIndex,
+            SearchResultCache searchResultCache, BookCounter bookCounter,
+            ObjectProvider<ReadWriteRoutingDataSource> readRouting) {
         this.bookRepository = bookRepository;
+        this.eventPublisher = eventPublisher;
+        this.bm25Index = bm25Index;
+        this.fuzzyIndex = fuzzyIndex;
+        this.suggestionIndex = suggestionIndex;
+        this.similarBooksIndex = similarBooksIndex;
+        this.facetIndex = facetIndex;
+        this.yearIndex = yearIndex;
+        this.searchResultCache = searchResultCache;
+        this.bookCounter = bookCounter;
+        this.readRouting = readRouting;
     }
 
+    @Transactional
     public Book createBook(Book book) {
-        return bookRepository.save(book);
+        Book savedBook = bookRepository.save(book);
+        eventPublisher.publishEvent(BookChangeEvent.created(savedBook));
+        return savedBook;
     }
 
+    @Transactional(readOnly = true)
     public Page<Book> getAllBooks(Pageable pageable) {
-        return bookRepository.findAll(pageable);
+        // The total comes from the in-memory counter, so a page costs a single query
+        OptionalLong total = bookCounter.total();
+        if (total.isEmpty()) {
+            return bookRepository.findAll(pageable);
+        }
+        Slice<Book> slice = bookRepository.findAllBy(pageable);
+        return new PageImpl<>(slice.getContent(), pageable, total.getAsLong());
+    }
+
+    // For clients that only need "is there a next page", skipping totals entirely
+    @Transactional(readOnly = true)
+    public Slice<Book> getBooksSlice(Pageable pageable) {
+        return bookRepository.findAllBy(pageable);
+    }
+
+    // Publication-year range and ordering served from the columnar year index
+    @Transactional(readOnly = true)
+    public Page<Book> getBooksByYear(Integer minYear, Integer maxYear, boolean descending, Pageable pageable) {
+        YearRangeResult result = queryYears(minYear, maxYear, descending, pageable);
+        return new PageImpl<>(findAllInOrder(result.bookIds()), pageable, result.total());
+    }
+
+    // Projections select only the requested columns and skip entity hydration
+    @Transactional(readOnly = true)
+    public PageEnvelope<Map<String, Object>> getAllBookFields(List<String> fields, Pageable pageable,
+            boolean includeTotal) {
+        List<Map<String, Object>> rows = bookRepository.findFields(fields, pageable.getOffset(),
+                pageable.getPageSize() + 1);
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        if (hasNext) {
+            rows = rows.subList(0, pageable.getPageSize());
+        }
+        Long total = null;
+        if (includeTotal) {
+            OptionalLong counted = bookCounter.total();
+            total = counted.isPresent() ? counted.getAsLong() : bookRepository.count();
+        }
+        return new PageEnvelope<>(rows, pageable.getPageNumber(), pageable.getPageSize(), total, hasNext);
+    }
+
+    @Transactional(readOnly = true)
+    public PageEnvelope<Map<String, Object>> getBookFieldsByYear(List<String> fields, Integer minYear,
+            Integer maxYear, boolean descending, Pageable pageable) {
+        YearRangeResult result = queryYears(minYear, maxYear, descending, pageable);
+        return new PageEnvelope<>(bookRepository.findFieldsByIds(fields, result.bookIds()), pageable.getPageNumber(),
+                pageable.getPageSize(), result.total(), pageable.getOffset() + pageable.getPageSize() < result.total());
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Map<String, Object>> getBookFieldsById(Long id, List<String> fields) {
+        return bookRepository.findFieldsByIds(fields, List.of(id)).stream().findFirst();
+    }
+
+    // Search results as projected rows, in the given order, wrapped like the projected list endpoint
+    @Transactional(readOnly = true)
+    public PageEnvelope<Map<String, Object>> getBookFieldsByIds(List<String> fields, List<Long> ids) {
+        List<Map<String, Object>> rows = bookRepository.findFieldsByIds(fields, ids);
+        return new PageEnvelope<>(rows, 0, rows.size(), (long) rows.size(), false);
+    }
+
+    // Id form of filterByYear, for projected searches
+    public List<Long> filterIdsByYear(List<Long> ids, Integer minYear, Integer maxYear, boolean descending) {
+        return yearIndex.query(lowerYear(minYear), upperYear(maxYear), descending, new HashSet<>(ids),
+                0, ids.size()).bookIds();
+    }
+
+    // Narrows search results to a year range and reorders them by year; no extra database round trip
+    public List<Book> filterByYear(List<Book> books, Integer minYear, Integer maxYear, boolean descending) {
+        Map<Long, Book> booksById = new HashMap<>();
+        for (Book book : books) {
+            booksById.put(book.getId(), book);
+        }
+        YearRangeResult result = yearIndex.query(lowerYear(minYear), upperYear(maxYear), descending,
+                booksById.keySet(), 0, books.size());
+        List<Book> filtered = new ArrayList<>(result.bookIds().size());
+        for (Long id : result.bookIds()) {
+            filtered.add(booksById.get(id));
+        }
+        return filtered;
     }
 
+    @Transactional
     public Book saveBook(Book book) {
-        return bookRepository.save(book);
+        boolean isNew = book.getId() == null;
+        Book savedBook = bookRepository.save(book);
+        eventPublisher.publishEvent(isNew ? BookChangeEvent.created(savedBook) : BookChangeEvent.updated(savedBook));
+        return savedBook;
     }
 
+    @Transactional(readOnly = true)
     public Optional<Book> getBookById(Long id) {
         return bookRepository.findById(id);
     }
 
+    @Transactional
     public Optional<Book> updateBook(Long id, Book bookDetails) {
         return bookRepository.findById(id).map(existingBook -> {
             existingBook.setTitle(bookDetails.getTitle());
@@ -42,23 +182,192 @@ public class BookService {
             existingBook.setIsbn(bookDetails.getIsbn());
             existingBook.setPublicationYear(bookDetails.getPublicationYear());
             existingBook.setDescription(bookDetails.getDescription());
-            return bookRepository.save(existingBook);
+            Book savedBook = bookRepository.save(existingBook);
+            eventPublisher.publishEvent(BookChangeEvent.updated(savedBook));
+            return savedBook;
         });
     }
 
-    public void deleteBook(Long id) {
-        bookRepository.deleteById(id);
+    @Transactional
+    // False when there was no such book; only an actual deletion is announced
+    public boolean deleteBook(Long id) {
+        if (bookRepository.deleteBookById(id) == 0) {
+            return false;
+        }
+        eventPublisher.publishEvent(BookChangeEvent.deleted(id));
+        return true;
     }
 
+    @Transactional(readOnly = true)
     public List<Book> searchBooks(String title, String author) {
-        if (title != null && !title.isEmpty() && author != null && !author.isEmpty()) {
-            return bookRepository.searchBooks(title, author);
-        } else if (title != null && !title.isEmpty()) {
-            return bookRepository.findByTitleContainingIgnoreCase(title);
-        } else if (author != null && !author.isEmpty()) {
-            return bookRepository.findByAuthorContainingIgnoreCase(author);
-        } else {
+        boolean hasTitle = title != null && !title.isEmpty();
+        boolean hasAuthor = author != null && !author.isEmpty();
+        if (!hasTitle && !hasAuthor) {
             return bookRepository.findAll();
         }
+
+        // Repeated searches skip the LIKE scan: cached ids are loaded by primary key
+        long generation = searchResultCache.generation();
+        long[] cachedIds = searchResultCache.get(title, author);
+        if (cachedIds != null) {
+            return findAllInOrder(toList(cachedIds));
+        }
+
+        List<Book> books;
+        if (hasTitle && hasAuthor) {
+            books = bookRepository.searchBooks(title, author);
+        } else if (hasTitle) {
+            books = bookRepository.findByTitleContainingIgnoreCase(title);
+        } else {
+            books = bookRepository.findByAuthorContainingIgnoreCase(author);
+        }
+        // A lagging replica may miss writes the generation already counts, so only primary results are cached
+        if (!readsFromReplica()) {
+            List<Long> ids = new ArrayList<>(books.size());
+            for (Book book : books) {
+                ids.add(book.getId());
+            }
+            searchResultCache.put(title, author, generation, ids);
+        }
+        return books;
+    }
+
+    // Same matches as searchBooks, ids only, sharing its result cache
+    @Transactional(readOnly = true)
+    public List<Long> searchBookIds(String title, String author) {
+        String titleFilter = title != null && !title.isEmpty() ? title : null;
+        String authorFilter = author != null && !author.isEmpty() ? author : null;
+        if (titleFilter == null && authorFilter == null) {
+            return bookRepository.searchBookIds(null, null);
+        }
+
+        long generation = searchResultCache.generation();
+        long[] cachedIds = searchResultCache.get(title, author);
+        if (cachedIds != null) {
+            return toList(cachedIds);
+        }
+        List<Long> ids = bookRepository.searchBookIds(titleFilter, authorFilter);
+        if (!readsFromReplica()) {
+            searchResultCache.put(title, author, generation, ids);
+        }
+        return ids;
+    }
+
+    public SearchCacheStats getSearchCacheStats() {
+        return searchResultCache.stats();
+    }
+
+    // Relevance-ranked full-text search served from the in-memory BM25 index
+    @Transactional(readOnly = true)
+    public List<Book> rankedSearch(String query, int limit) {
+        return rankedSearch(query, limit, null, null);
+    }
+
+    // The year range is applied while ranking, so it never shrinks the result below the limit
+    @Transactional(readOnly = true)
+    public List<Book> rankedSearch(String query, int limit, Integer minYear, Integer maxYear) {
+        return findAllInOrder(rankedSearchIds(query, limit, minYear, maxYear));
+    }
+
+    public List<Long> rankedSearchIds(String query, int limit, Integer minYear, Integer maxYear) {
+        int boundedLimit = Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS));
+        return bookIds(bm25Index.search(query, boundedLimit, yearFilter(minYear, maxYear)));
+    }
+
+    // Typo-tolerant title/author search served from the in-memory fuzzy index
+    @Transactional(readOnly = true)
+    public List<Book> fuzzySearch(String title, String author, int limit) {
+        return fuzzySearch(title, author, limit, null, null);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Book> fuzzySearch(String title, String author, int limit, Integer minYear, Integer maxYear) {
+        return findAllInOrder(fuzzySearchIds(title, author, limit, minYear, maxYear));
+    }
+
+    public List<Long> fuzzySearchIds(String title, String author, int limit, Integer minYear, Integer maxYear) {
+        int boundedLimit = Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS));
+        return fuzzyIndex.search(title, author, boundedLimit, yearFilter(minYear, maxYear));
+    }
+
+    // Autocomplete over titles and authors; never touches the database
+    public List<Suggestion> suggest(String prefix, int limit) {
+        return suggestionIndex.suggest(prefix, Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS)));
+    }
+
+    // "More like this" from the in-memory vector index, most similar first
+    @Transactional(readOnly = true)
+    public List<Book> findSimilarBooks(Long id, int limit) {
+        int boundedLimit = Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS));
+        return findAllInOrder(bookIds(similarBooksIndex.similarTo(id, boundedLimit)));
+    }
+
+    // Author and decade counts, either catalog-wide or over every book matching the query
+    public Facets getFacets(String query, int authorLimit) {
+        int boundedLimit = Math.max(1, Math.min(authorLimit, MAX_SEARCH_RESULTS));
+        if (query == null || query.isBlank()) {
+            return facetIndex.facets(boundedLimit);
+        }
+        return facetIndex.facets(bm25Index.matchingBookIds(query), boundedLimit);
+    }
+
+    private boolean readsFromReplica() {
+        ReadWriteRoutingDataSource routing = readRouting.getIfAvailable();
+        return routing != null && routing.routesToReplica();
+    }
+
+    private YearRangeResult queryYears(Integer minYear, Integer maxYear, boolean descending, Pageable pageable) {
+        return yearIndex.query(lowerYear(minYear), upperYear(maxYear), descending, null,
+                (int) Math.min(pageable.getOffset(), Integer.MAX_VALUE), pageable.getPageSize());
+    }
+
+    private LongPredicate yearFilter(Integer minYear, Integer maxYear) {
+        if (minYear == null && maxYear == null) {
+            return null;
+        }
+        return yearIndex.publishedBetween(lowerYear(minYear), upperYear(maxYear));
+    }
+
+    private static int lowerYear(Integer minYear) {
+        return minYear != null ? minYear : Integer.MIN_VALUE;
+    }
+
+    private static int upperYear(Integer maxYear) {
+        return maxYear != null ? maxYear : Integer.MAX_VALUE;
+    }
+
+    private static List<Long> bookIds(List<SearchHit> hits) {
+        List<Long> ids = new ArrayList<>(hits.size());
+        for (SearchHit hit : hits) {
+            ids.add(hit.bookId());
+        }
+        return ids;
+    }
+
+    private static List<Long> toList(long[] ids) {
+        List<Long> list = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            list.add(id);
+        }
+        return list;
+    }
+
+    // findAllById does not preserve order, so re-apply the index ranking
+    private List<Book> findAllInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Book> booksById = new HashMap<>();
+        for (Book book : bookRepository.findAllById(ids)) {
+            booksById.put(book.getId(), book);
+        }
+        List<Book> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Book book = booksById.get(id);
+            if (book != null) {
+                ordered.add(book);
+            }
+        }
+        return ordered;
     }
 }
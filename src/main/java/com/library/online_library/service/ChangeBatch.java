@@ -0,0 +1,12 @@
+package com.library.online_library.service;
+
+import java.util.List;
+
+import com.library.online_library.model.BookChange;
+
+/**
+ * A batch of the change feed. Pass {@code nextSince} as {@code since} on the
+ * next call; {@code hasMore} means another batch is already available.
+ */
+public record ChangeBatch(List<BookChange> changes, long nextSince, boolean hasMore) {
+}
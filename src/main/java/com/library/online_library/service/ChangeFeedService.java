@@ -0,0 +1,360 @@
+package com.library.online_library.service;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.library.online_library.datasource.ReplicationStandIn;
+import com.library.online_library.index.BookChangeEvent;
+import com.library.online_library.model.BookChange;
+import com.library.online_library.repository.BookChangeRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Ordered log of book writes for incremental sync. Every write inserts its
+ * {@code book_changes} row in the same transaction, so a book write and its
+ * change entry commit or roll back together. Transactions may commit out of
+ * seq order, so a committed change is only published once every lower seq has
+ * committed or rolled back; readers never see seq N while a lower seq could
+ * still appear. Published changes go to a bounded in-memory ring buffer, and
+ * reads that start inside the buffer never touch the database. Each SSE
+ * subscriber has its own bounded queue drained on its own sender task, so a
+ * slow client delays only itself and is dropped once it falls too far behind.
+ */
+@Service
+public class ChangeFeedService {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeFeedService.class);
+
+    static final int MAX_BATCH_SIZE = 1000;
+
+    private final BookChangeRepository changeRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long sseTimeoutMillis;
+    private final int maxQueuedPerSubscriber;
+    // Held while a change row is inserted and its seq registered, so seqs enter inFlight in order, and
+    // during readCommitted, so no lower seq can be allocated behind a reader's back
+    private final ReentrantLock allocationLock = new ReentrantLock();
+    private final BookChange[] buffer;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ExecutorService senders = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "change-feed-sender");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Guarded by buffer: ring position, size, and the seq after which every change is buffered
+    private int start;
+    private int size;
+    private long bufferedAfter = Long.MAX_VALUE;
+    // Guarded by buffer: seqs written but not yet committed or rolled back, and commits waiting on them
+    private final TreeSet<Long> inFlight = new TreeSet<>();
+    private final TreeMap<Long, BookChange> awaitingPublication = new TreeMap<>();
+
+    public ChangeFeedService(BookChangeRepository changeRepository, ApplicationEventPublisher eventPublisher,
+            @Value("${library.changes.buffer-size:10000}") int bufferSize,
+            @Value("${library.changes.sse-timeout-ms:300000}") long sseTimeoutMillis,
+            @Value("${library.changes.subscriber-queue-size:1000}") int maxQueuedPerSubscriber,
+            ObjectProvider<ReplicationStandIn> replication) {
+        this.changeRepository = changeRepository;
+        this.eventPublisher = eventPublisher;
+        this.buffer = new BookChange[bufferSize];
+        this.sseTimeoutMillis = sseTimeoutMillis;
+        this.maxQueuedPerSubscriber = maxQueuedPerSubscriber;
+        // The local replica replays book_changes too, so it must not run ahead of an in-flight write either
+        replication.ifAvailable(standIn -> standIn.setChangeLogReads(this::readCommitted));
+    }
+
+    // Runs inside the writer's transaction; a failed insert rolls the book write back with it
+    @EventListener
+    public void onBookChanged(BookChangeEvent event) {
+        Long version = event.book() != null ? event.book().getVersion() : null;
+        BookChange change = new BookChange(event.bookId(), BookChange.Operation.valueOf(event.type().name()),
+                version, Instant.now());
+        BookChange saved;
+        allocationLock.lock();
+        try {
+            saved = changeRepository.save(change);
+            synchronized (buffer) {
+                inFlight.add(saved.getSeq());
+            }
+        } finally {
+            allocationLock.unlock();
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new ReleaseUncommitted(saved.getSeq()));
+        }
+        eventPublisher.publishEvent(new BookChangeRecorded(saved));
+    }
+
+    // Writes outside a transaction (such as the sample seeder) are already committed
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onChangeCommitted(BookChangeRecorded recorded) {
+        BookChange change = recorded.change();
+        synchronized (buffer) {
+            if (inFlight.remove(change.getSeq())) {
+                awaitingPublication.put(change.getSeq(), change);
+                publishReady();
+            }
+        }
+    }
+
+    public ChangeBatch getChangesSince(long since, int limit) {
+        int boundedLimit = Math.max(1, Math.min(limit, MAX_BATCH_SIZE));
+        List<BookChange> changes = readBuffer(since, boundedLimit + 1);
+        if (changes == null) {
+            changes = readDatabase(since, boundedLimit + 1);
+        }
+        boolean hasMore = changes.size() > boundedLimit;
+        if (hasMore) {
+            changes = changes.subList(0, boundedLimit);
+        }
+        long nextSince = changes.isEmpty() ? since : changes.get(changes.size() - 1).getSeq();
+        return new ChangeBatch(changes, nextSince, hasMore);
+    }
+
+    /**
+     * Runs a read of {@code book_changes} given the highest seq it may expose.
+     * Rows above it were committed ahead of an older write still in flight, and
+     * no new seq is allocated until the read returns.
+     */
+    public <T> T readCommitted(LongFunction<T> read) {
+        allocationLock.lock();
+        try {
+            long visibleThrough;
+            synchronized (buffer) {
+                visibleThrough = inFlight.isEmpty() ? Long.MAX_VALUE : inFlight.first() - 1;
+            }
+            return read.apply(visibleThrough);
+        } finally {
+            allocationLock.unlock();
+        }
+    }
+
+    /**
+     * Streams every change after {@code since}: first the backlog, then live
+     * changes as they are written. Each event carries its seq as the SSE id, so
+     * a reconnecting client resumes through {@code Last-Event-ID}.
+     */
+    public SseEmitter subscribe(long since) {
+        SseEmitter emitter = new SseEmitter(sseTimeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, since);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+
+        // Registered before the backlog is read, so every change published from here on is queued too
+        synchronized (buffer) {
+            subscribers.add(subscriber);
+        }
+        senders.execute(subscriber::catchUp);
+        return emitter;
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    // Publishes committed changes in seq order, up to the oldest seq still in flight
+    private void publishReady() {
+        while (!awaitingPublication.isEmpty()
+                && (inFlight.isEmpty() || awaitingPublication.firstKey() < inFlight.first())) {
+            BookChange change = awaitingPublication.pollFirstEntry().getValue();
+            append(change);
+            subscribers.removeIf(subscriber -> !subscriber.offer(change));
+        }
+    }
+
+    private List<BookChange> readDatabase(long since, int limit) {
+        return readCommitted(visibleThrough -> {
+            List<BookChange> changes = new ArrayList<>(
+                    changeRepository.findBySeqGreaterThanOrderBySeqAsc(since, PageRequest.of(0, limit)));
+            changes.removeIf(change -> change.getSeq() > visibleThrough);
+            return changes;
+        });
+    }
+
+    private void append(BookChange change) {
+        synchronized (buffer) {
+            if (size == 0 && bufferedAfter == Long.MAX_VALUE) {
+                bufferedAfter = change.getSeq() - 1;
+            }
+            if (size == buffer.length) {
+                bufferedAfter = buffer[start].getSeq();
+                buffer[start] = change;
+                start = (start + 1) % buffer.length;
+            } else {
+                buffer[(start + size) % buffer.length] = change;
+                size++;
+            }
+        }
+    }
+
+    // Changes after since from the ring buffer, or null when older changes have been evicted
+    private List<BookChange> readBuffer(long since, int limit) {
+        synchronized (buffer) {
+            if (buffer.length == 0 || since < bufferedAfter) {
+                return null;
+            }
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (buffer[(start + middle) % buffer.length].getSeq() <= since) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            List<BookChange> changes = new ArrayList<>(Math.min(limit, size - low));
+            for (int i = low; i < size && changes.size() < limit; i++) {
+                changes.add(buffer[(start + i) % buffer.length]);
+            }
+            return changes;
+        }
+    }
+
+    // A rolled-back change never commits; forget it so later commits are not held back
+    private final class ReleaseUncommitted implements TransactionSynchronization {
+
+        private final long seq;
+
+        ReleaseUncommitted(long seq) {
+            this.seq = seq;
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            synchronized (buffer) {
+                if (inFlight.remove(seq)) {
+                    publishReady();
+                }
+            }
+        }
+    }
+
+    private final class Subscriber {
+
+        final SseEmitter emitter;
+        // Only touched by this subscriber's sender task
+        private long lastSeq;
+        // Guarded by this
+        private final ArrayDeque<BookChange> queue = new ArrayDeque<>();
+        private boolean draining = true;
+        private boolean closed;
+
+        Subscriber(SseEmitter emitter, long since) {
+            this.emitter = emitter;
+            this.lastSeq = since;
+        }
+
+        // Called while publishing; false once the subscriber has fallen too far behind to keep
+        synchronized boolean offer(BookChange change) {
+            if (closed) {
+                return false;
+            }
+            if (queue.size() >= maxQueuedPerSubscriber) {
+                // The client reconnects with Last-Event-ID and resumes from the backlog
+                closed = true;
+                queue.clear();
+            } else {
+                queue.add(change);
+            }
+            if (!draining) {
+                draining = true;
+                senders.execute(this::drain);
+            }
+            return !closed;
+        }
+
+        void catchUp() {
+            ChangeBatch batch;
+            do {
+                batch = getChangesSince(lastSeq, MAX_BATCH_SIZE);
+                for (BookChange change : batch.changes()) {
+                    if (!send(change)) {
+                        return;
+                    }
+                }
+            } while (batch.hasMore());
+            drain();
+        }
+
+        private void drain() {
+            while (true) {
+                BookChange change;
+                boolean dropped;
+                synchronized (this) {
+                    dropped = closed;
+                    change = dropped ? null : queue.poll();
+                    if (change == null && !dropped) {
+                        draining = false;
+                        return;
+                    }
+                }
+                if (dropped) {
+                    log.debug("Dropping change feed subscriber more than {} changes behind", maxQueuedPerSubscriber);
+                    emitter.complete();
+                    return;
+                }
+                if (!send(change)) {
+                    return;
+                }
+            }
+        }
+
+        // Skips changes already sent as backlog
+        private boolean send(BookChange change) {
+            if (change.getSeq() <= lastSeq) {
+                return true;
+            }
+            try {
+                emitter.send(SseEmitter.event()
+                        .id(String.valueOf(change.getSeq()))
+                        .name("change")
+                        .data(change));
+                lastSeq = change.getSeq();
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Dropping change feed subscriber: {}", e.getMessage());
+                subscribers.remove(this);
+                synchronized (this) {
+                    closed = true;
+                    queue.clear();
+                }
+                emitter.completeWithError(e);
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.library.online_library.service;
+
+import java.util.List;
+
+/**
+ * Compact page wrapper used for projected responses instead of Spring's
+ * {@code Page} JSON. {@code totalElements} is null when totals were skipped.
+ */
+public record PageEnvelope<T>(List<T> content, int page, int size, Long totalElements, boolean hasNext) {
+}
@@ -0,0 +1,48 @@
+package com.library.online_library.storage;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Writes a fresh snapshot of the file-backed database when the application
+ * shuts down, for the next warm start. Destroyed before the datasource, so the
+ * database is still open at that point.
+ */
+@Component
+@ConditionalOnProperty(name = "library.storage.snapshot-on-shutdown", havingValue = "true")
+public class SnapshotOnShutdown {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotOnShutdown.class);
+
+    private final DataSource dataSource;
+    private final Path snapshot;
+
+    public SnapshotOnShutdown(DataSource dataSource, @Value("${library.storage.snapshot}") String snapshot) {
+        this.dataSource = dataSource;
+        this.snapshot = Path.of(snapshot);
+    }
+
+    @PreDestroy
+    public void writeSnapshot() {
+        long start = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            StorageSnapshots.backup(connection, snapshot);
+            log.info("Wrote database snapshot {} in {} ms", snapshot.toAbsolutePath(),
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (SQLException | IOException e) {
+            log.warn("Could not write database snapshot {}: {}", snapshot, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.library.online_library.storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.apache.commons.logging.Log;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.config.ConfigDataEnvironmentPostProcessor;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.boot.logging.DeferredLogFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.ConfigurableEnvironment;
+
+/**
+ * Warm start for the file storage profile: when the database file is missing
+ * and a snapshot is configured, the snapshot is unpacked before any bean (and
+ * so the datasource) is created. Runs after the config files are loaded, so
+ * profile-specific {@code library.storage.*} settings apply.
+ */
+public class SnapshotRestoreEnvironmentPostProcessor implements EnvironmentPostProcessor, Ordered {
+
+    private static final String MV_STORE_SUFFIX = ".mv.db";
+
+    private final Log log;
+
+    public SnapshotRestoreEnvironmentPostProcessor(DeferredLogFactory logFactory) {
+        this.log = logFactory.getLog(SnapshotRestoreEnvironmentPostProcessor.class);
+    }
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (!environment.getProperty("library.storage.restore-snapshot", Boolean.class, false)) {
+            return;
+        }
+        String databasePath = environment.getProperty("library.storage.path");
+        String snapshotPath = environment.getProperty("library.storage.snapshot");
+        if (databasePath == null || snapshotPath == null) {
+            return;
+        }
+        Path database = Path.of(databasePath + MV_STORE_SUFFIX).toAbsolutePath();
+        Path snapshot = Path.of(snapshotPath).toAbsolutePath();
+        if (Files.exists(database) || !Files.isRegularFile(snapshot)) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            int files = StorageSnapshots.restore(snapshot, database.getParent());
+            log.info("Restored " + files + " database file(s) from snapshot " + snapshot + " in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not restore database snapshot " + snapshot, e);
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return ConfigDataEnvironmentPostProcessor.ORDER + 1;
+    }
+}
@@ -0,0 +1,93 @@
+package com.library.online_library.util;
+
+import java.util.Arrays;
+
+/**
+ * Binary heap of primitive {@code long}s, either min- or max-ordered. Callers
+ * pack a sortable key into the high bits and a payload into the low bits to get
+ * a priority queue without boxing. Not thread-safe.
+ */
+public class LongHeap {
+
+    private final boolean maxHeap;
+    private long[] elements;
+    private int size;
+
+    private LongHeap(boolean maxHeap, int initialCapacity) {
+        this.maxHeap = maxHeap;
+        this.elements = new long[Math.max(initialCapacity, 1)];
+    }
+
+    public static LongHeap minHeap(int initialCapacity) {
+        return new LongHeap(false, initialCapacity);
+    }
+
+    public static LongHeap maxHeap(int initialCapacity) {
+        return new LongHeap(true, initialCapacity);
+    }
+
+    public void push(long value) {
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, size << 1);
+        }
+        int index = size++;
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!before(value, elements[parent])) {
+                break;
+            }
+            elements[index] = elements[parent];
+            index = parent;
+        }
+        elements[index] = value;
+    }
+
+    public long peek() {
+        if (size == 0) {
+            throw new IllegalStateException("Heap is empty");
+        }
+        return elements[0];
+    }
+
+    public long pop() {
+        long top = peek();
+        long last = elements[--size];
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && before(elements[child + 1], elements[child])) {
+                child++;
+            }
+            if (!before(elements[child], last)) {
+                break;
+            }
+            elements[index] = elements[child];
+            index = child;
+        }
+        elements[index] = last;
+        return top;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Remaining elements in ascending order; empties the heap. */
+    public long[] drainAscending() {
+        long[] sorted = Arrays.copyOf(elements, size);
+        size = 0;
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    private boolean before(long a, long b) {
+        return maxHeap ? a > b : a < b;
+    }
+}
@@ -0,0 +1,29 @@
+package com.library.online_library.warmup;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports {@code OUT_OF_SERVICE} until the startup warm-up has finished, so
+ * the readiness probe keeps the instance out of the load balancer meanwhile.
+ * Registered in the readiness group as {@code warmUp}.
+ */
+@Component
+public class WarmUpHealthIndicator implements HealthIndicator {
+
+    private final WarmUpRunner warmUpRunner;
+
+    public WarmUpHealthIndicator(WarmUpRunner warmUpRunner) {
+        this.warmUpRunner = warmUpRunner;
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder builder = warmUpRunner.isCompleted() ? Health.up() : Health.outOfService();
+        return builder
+                .withDetail("iterations", warmUpRunner.getCompletedIterations())
+                .withDetail("elapsedMs", warmUpRunner.getElapsedMillis())
+                .build();
+    }
+}
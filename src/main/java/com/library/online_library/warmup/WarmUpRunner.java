@@ -0,0 +1,171 @@
+package com.library.online_library.warmup;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.online_library.config.SampleDataSeededEvent;
+import com.library.online_library.model.Book;
+import com.library.online_library.service.BookService;
+
+/**
+ * Runs read-only synthetic traffic through {@link BookService} and Jackson
+ * after startup, so the hot paths are JIT-compiled and the connection pool and
+ * search caches are filled before the instance reports ready. Runs after the
+ * index rebuild and stops when the iterations are done or the time budget is
+ * spent, whichever comes first; see {@link WarmUpHealthIndicator}. When the
+ * sample data is seeded in the background, it first waits (within the same
+ * budget) for the seeder, so it does not warm up against an empty catalog.
+ */
+@Component
+public class WarmUpRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmUpRunner.class);
+    private static final int SAMPLE_SIZE = 50;
+
+    private final BookService bookService;
+    private final ObjectMapper objectMapper;
+    private final DataSource dataSource;
+    private final boolean enabled;
+    private final int iterations;
+    private final long budgetMillis;
+    private final int connections;
+    private final CountDownLatch seeded;
+
+    private volatile boolean completed;
+    private volatile int completedIterations;
+    private volatile long elapsedMillis;
+
+    public WarmUpRunner(BookService bookService, ObjectMapper objectMapper, DataSource dataSource,
+            @Value("${library.warmup.enabled:true}") boolean enabled,
+            @Value("${library.warmup.iterations:2000}") int iterations,
+            @Value("${library.warmup.budget-ms:10000}") long budgetMillis,
+            @Value("${library.warmup.connections:5}") int connections,
+            @Value("${library.seed.background:false}") boolean seedInBackground) {
+        this.bookService = bookService;
+        this.objectMapper = objectMapper;
+        this.dataSource = dataSource;
+        this.enabled = enabled;
+        this.iterations = iterations;
+        this.budgetMillis = budgetMillis;
+        this.connections = connections;
+        this.seeded = new CountDownLatch(seedInBackground ? 1 : 0);
+    }
+
+    // Ordered after BookIndexManager, so the indexes are loaded before traffic is simulated
+    @Order(1)
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            completed = true;
+            return;
+        }
+        Thread thread = new Thread(this::run, "warm-up");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @EventListener(SampleDataSeededEvent.class)
+    public void onSampleDataSeeded() {
+        seeded.countDown();
+    }
+
+    void run() {
+        long start = System.nanoTime();
+        long deadline = start + budgetMillis * 1_000_000;
+        try {
+            primeConnectionPool();
+            if (!seeded.await(remainingMillis(deadline), TimeUnit.MILLISECONDS)) {
+                log.warn("Warm-up skipped: background seeding did not finish within {} ms", budgetMillis);
+                return;
+            }
+            List<Book> samples = bookService.getAllBooks(PageRequest.of(0, SAMPLE_SIZE)).getContent();
+            for (int i = 0; i < iterations && System.nanoTime() < deadline; i++) {
+                exercise(samples.isEmpty() ? null : samples.get(i % samples.size()));
+                completedIterations = i + 1;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException | SQLException e) {
+            // Warm-up is an optimization; never keep the instance out of rotation because of it
+            log.warn("Warm-up stopped early: {}", e.getMessage());
+        } finally {
+            elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            completed = true;
+            log.info("Warm-up finished: {} of {} iterations in {} ms", completedIterations, iterations, elapsedMillis);
+        }
+    }
+
+    private static long remainingMillis(long deadline) {
+        return Math.max(0, (deadline - System.nanoTime()) / 1_000_000);
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public int getCompletedIterations() {
+        return completedIterations;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    // Holding several connections at once makes the pool open them now rather than under load
+    private void primeConnectionPool() throws SQLException {
+        List<Connection> held = new ArrayList<>(connections);
+        try {
+            for (int i = 0; i < connections; i++) {
+                Connection connection = dataSource.getConnection();
+                connection.isValid(1);
+                held.add(connection);
+            }
+        } finally {
+            for (Connection connection : held) {
+                connection.close();
+            }
+        }
+    }
+
+    // The same read paths the busiest endpoints use, serialized as they would be in a response
+    private void exercise(Book sample) {
+        serialize(bookService.getAllBooks(PageRequest.of(0, 10)));
+        if (sample == null) {
+            return;
+        }
+        String title = sample.getTitle();
+        String prefix = title.substring(0, Math.min(4, title.length()));
+        serialize(bookService.getBookById(sample.getId()).orElse(null));
+        serialize(bookService.searchBooks(prefix, null));
+        serialize(bookService.rankedSearch(title, 20));
+        serialize(bookService.fuzzySearch(title, null, 20));
+        serialize(bookService.suggest(prefix, 10));
+        serialize(bookService.getBooksByYear(sample.getPublicationYear() - 5, sample.getPublicationYear() + 5, false,
+                PageRequest.of(0, 10)));
+    }
+
+    private void serialize(Object value) {
+        try {
+            objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize warm-up response", e);
+        }
+    }
+}
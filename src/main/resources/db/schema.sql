@@ -0,0 +1,20 @@
+-- Schema for profiles that run with spring.jpa.hibernate.ddl-auto=none (see application-prod.properties).
+-- Keep in sync with the JPA entities in com.library.online_library.model.
+
+CREATE TABLE IF NOT EXISTS books (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title VARCHAR(50) NOT NULL,
+    author VARCHAR(50) NOT NULL,
+    isbn VARCHAR(13) NOT NULL,
+    publication_year INTEGER NOT NULL,
+    description VARCHAR(100),
+    version BIGINT
+);
+
+CREATE TABLE IF NOT EXISTS book_changes (
+    seq BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    book_id BIGINT NOT NULL,
+    operation VARCHAR(10) NOT NULL,
+    version BIGINT,
+    timestamp TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
@@ -0,0 +1,47 @@
+package com.library.online_library.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.library.online_library.model.Book;
+import com.library.online_library.seed.SyntheticCatalog;
+
+/**
+ * Shared fixture and measurement helpers for the benchmarks. Books come from
+ * {@link SyntheticCatalog} with the synthetic profile's defaults, so every
+ * benchmark sees the same catalog shape as a {@code synthetic} run.
+ */
+final class Benchmarks {
+
+    private static final int AUTHORS = 20_000;
+    private static final double ZIPF_EXPONENT = 1.07;
+
+    private Benchmarks() {
+    }
+
+    /** The first {@code count} catalog rows, with ids 1..count as the loader would assign them. */
+    static List<Book> books(int count, long seed) {
+        SyntheticCatalog catalog = new SyntheticCatalog(seed, AUTHORS, ZIPF_EXPONENT);
+        List<Book> books = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Book book = catalog.book(i);
+            book.setId((long) i + 1);
+            books.add(book);
+        }
+        return books;
+    }
+
+    /** Percentile of a sorted array of nanosecond samples, in microseconds. */
+    static double percentileMicros(long[] sortedNanos, double percentile) {
+        int index = (int) Math.min(sortedNanos.length - 1, Math.ceil(percentile / 100.0 * sortedNanos.length) - 1);
+        return sortedNanos[Math.max(0, index)] / 1_000.0;
+    }
+
+    static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,91 @@
+package com.library.online_library.benchmark;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import com.library.online_library.model.Book;
+import com.library.online_library.search.FuzzyIndex;
+
+/**
+ * Memory footprint, misspelled-query latency and update latency of
+ * {@link FuzzyIndex} at catalog scale. Not part of the test suite; run from the
+ * IDE or with
+ * {@code java -cp target/classes:target/test-classes com.library.online_library.benchmark.FuzzyIndexBenchmark 1000000}.
+ */
+public class FuzzyIndexBenchmark {
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int queries = 5_000;
+        int updates = 100_000;
+
+        List<Book> books = Benchmarks.books(count, 42);
+        long baseline = Benchmarks.usedHeapAfterGc();
+
+        FuzzyIndex index = new FuzzyIndex(2);
+        long start = System.nanoTime();
+        for (Book book : books) {
+            index.index(book);
+        }
+        long buildMillis = (System.nanoTime() - start) / 1_000_000;
+        long footprint = Benchmarks.usedHeapAfterGc() - baseline;
+
+        // One typo in a title word or author name of a random book, like a user would make.
+        SplittableRandom random = new SplittableRandom(7);
+        String[] titles = new String[queries];
+        String[] authors = new String[queries];
+        for (int i = 0; i < queries; i++) {
+            Book book = books.get(random.nextInt(count));
+            if (random.nextBoolean()) {
+                String[] words = book.getTitle().split(" ");
+                titles[i] = typo(words[random.nextInt(words.length)], random);
+            } else {
+                authors[i] = typo(book.getAuthor(), random);
+            }
+        }
+
+        // Warm up the JIT before measuring.
+        for (int i = 0; i < queries; i++) {
+            index.search(titles[i], authors[i], 20);
+        }
+        long[] searchSamples = new long[queries];
+        for (int i = 0; i < queries; i++) {
+            long searchStart = System.nanoTime();
+            index.search(titles[i], authors[i], 20);
+            searchSamples[i] = System.nanoTime() - searchStart;
+        }
+        Arrays.sort(searchSamples);
+
+        long[] updateSamples = new long[updates];
+        for (int i = 0; i < updates; i++) {
+            Book book = books.get(random.nextInt(count));
+            long updateStart = System.nanoTime();
+            if (random.nextBoolean()) {
+                index.remove(book.getId());
+            }
+            index.index(book);
+            updateSamples[i] = System.nanoTime() - updateStart;
+        }
+        Arrays.sort(updateSamples);
+
+        System.out.printf("books=%d build=%d ms heap=%.1f MB (%.0f bytes/book)%n",
+                count, buildMillis, footprint / 1_048_576.0, (double) footprint / count);
+        System.out.printf("search latency: p50=%.1f us p99=%.1f us p99.9=%.1f us%n",
+                Benchmarks.percentileMicros(searchSamples, 50), Benchmarks.percentileMicros(searchSamples, 99),
+                Benchmarks.percentileMicros(searchSamples, 99.9));
+        System.out.printf("update latency: p50=%.1f us p99=%.1f us p99.9=%.1f us%n",
+                Benchmarks.percentileMicros(updateSamples, 50), Benchmarks.percentileMicros(updateSamples, 99),
+                Benchmarks.percentileMicros(updateSamples, 99.9));
+    }
+
+    private static String typo(String text, SplittableRandom random) {
+        if (text.length() < 4) {
+            return text;
+        }
+        int at = 1 + random.nextInt(text.length() - 2);
+        return random.nextBoolean()
+                ? text.substring(0, at) + text.substring(at + 1)
+                : text.substring(0, at) + text.charAt(at + 1) + text.charAt(at) + text.substring(at + 2);
+    }
+}
@@ -0,0 +1,76 @@
+package com.library.online_library.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.library.online_library.model.Book;
+
+/**
+ * Payload size and serialization throughput of a 1000-book {@code GET /books}
+ * page as JSON, CBOR and Smile, each raw and gzip-compressed. Not part of the
+ * test suite; run with
+ * {@code java -cp target/classes:target/test-classes:<dependencies> com.library.online_library.benchmark.SerializationBenchmark}.
+ */
+public class SerializationBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int pageSize = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int iterations = 2000;
+
+        List<Book> books = Benchmarks.books(pageSize, 42);
+        books.forEach(book -> book.setVersion(0L));
+        PageImpl<Book> page = new PageImpl<>(books, PageRequest.of(0, pageSize), 1_000_000);
+
+        run("json", new ObjectMapper(), page, iterations);
+        run("cbor", new CBORMapper(), page, iterations);
+        run("smile", new SmileMapper(), page, iterations);
+    }
+
+    private static void run(String format, ObjectMapper mapper, Object page, int iterations) throws IOException {
+        byte[] encoded = mapper.writeValueAsBytes(page);
+        byte[] gzipped = gzip(encoded);
+
+        // Warm up the JIT before measuring.
+        for (int i = 0; i < iterations; i++) {
+            mapper.writeValueAsBytes(page);
+            mapper.readTree(encoded);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            mapper.writeValueAsBytes(page);
+        }
+        double writeMicros = (System.nanoTime() - start) / 1_000.0 / iterations;
+        start = System.nanoTime();
+        JsonNode tree = null;
+        for (int i = 0; i < iterations; i++) {
+            tree = mapper.readTree(encoded);
+        }
+        double readMicros = (System.nanoTime() - start) / 1_000.0 / iterations;
+        start = System.nanoTime();
+        for (int i = 0; i < iterations / 10; i++) {
+            gzip(encoded);
+        }
+        double gzipMicros = (System.nanoTime() - start) / 1_000.0 / (iterations / 10);
+
+        System.out.printf("%-5s size=%7d B gzip=%6d B | write=%7.1f us (%5.0f pages/s) read=%7.1f us gzip=%7.1f us [%d items]%n",
+                format, encoded.length, gzipped.length, writeMicros, 1_000_000 / writeMicros, readMicros, gzipMicros,
+                tree.get("content").size());
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,118 @@
+package com.library.online_library.benchmark;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import com.library.online_library.model.Book;
+import com.library.online_library.search.HashedTfIdfVectorizer;
+import com.library.online_library.search.HnswIndex;
+import com.library.online_library.search.SearchHit;
+import com.library.online_library.search.TopKCollector;
+
+/**
+ * Recall and latency of the HNSW graph behind /books/{id}/similar against an
+ * exact brute-force scan over the same vectors. Not part of the test suite; run
+ * with {@code java -cp target/classes:target/test-classes
+ * com.library.online_library.benchmark.SimilarBooksBenchmark [books] [ef]}.
+ */
+public class SimilarBooksBenchmark {
+
+    private static final int DIMENSIONS = 64;
+    private static final int K = 10;
+    private static final int QUERIES = 1_000;
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int ef = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+
+        List<Book> books = Benchmarks.books(count, 42);
+        HashedTfIdfVectorizer vectorizer = new HashedTfIdfVectorizer(DIMENSIONS);
+        float[][] termFrequencies = new float[count][];
+        for (int i = 0; i < count; i++) {
+            termFrequencies[i] = vectorizer.termFrequencies(books.get(i));
+            vectorizer.documentAdded(termFrequencies[i]);
+        }
+        float[] flat = new float[count * DIMENSIONS];
+        for (int i = 0; i < count; i++) {
+            System.arraycopy(vectorizer.weight(termFrequencies[i]), 0, flat, i * DIMENSIONS, DIMENSIONS);
+        }
+
+        HnswIndex graph = new HnswIndex(DIMENSIONS, 12, 64, 42);
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            graph.add(books.get(i).getId(), termFrequencies[i]);
+        }
+        long buildMillis = (System.nanoTime() - start) / 1_000_000;
+
+        SplittableRandom random = new SplittableRandom(7);
+        int[] queries = new int[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = random.nextInt(count);
+        }
+        for (int query : queries) {
+            graph.search(termFrequencies[query], K, ef);
+            bruteForce(flat, termFrequencies[query], count);
+        }
+
+        long[] graphNanos = new long[QUERIES];
+        long[] exactNanos = new long[QUERIES];
+        double recall = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            float[] query = termFrequencies[queries[i]];
+
+            long queryStart = System.nanoTime();
+            List<SearchHit> approximate = graph.search(query, K, ef);
+            graphNanos[i] = System.nanoTime() - queryStart;
+
+            queryStart = System.nanoTime();
+            int[] exact = bruteForce(flat, query, count);
+            exactNanos[i] = System.nanoTime() - queryStart;
+
+            Set<Long> expected = new HashSet<>();
+            float cutoff = Float.MAX_VALUE;
+            for (int doc : exact) {
+                expected.add(books.get(doc).getId());
+                cutoff = Math.min(cutoff, dot(flat, doc, query));
+            }
+            int found = 0;
+            for (SearchHit hit : approximate) {
+                // Ties at the cut-off are as good as the exact answer.
+                if (expected.contains(hit.bookId()) || hit.score() >= cutoff - 1e-6f) {
+                    found++;
+                }
+            }
+            recall += (double) Math.min(found, K) / K;
+        }
+        Arrays.sort(graphNanos);
+        Arrays.sort(exactNanos);
+
+        System.out.printf("books=%d dims=%d ef=%d build=%d ms%n", count, DIMENSIONS, ef, buildMillis);
+        System.out.printf("recall@%d=%.3f%n", K, recall / QUERIES);
+        System.out.printf("hnsw:        p50=%.1f us p99=%.1f us%n",
+                Benchmarks.percentileMicros(graphNanos, 50), Benchmarks.percentileMicros(graphNanos, 99));
+        System.out.printf("brute force: p50=%.1f us p99=%.1f us%n",
+                Benchmarks.percentileMicros(exactNanos, 50), Benchmarks.percentileMicros(exactNanos, 99));
+    }
+
+    private static int[] bruteForce(float[] flat, float[] query, int count) {
+        TopKCollector collector = new TopKCollector(K);
+        for (int doc = 0; doc < count; doc++) {
+            collector.collect(doc, dot(flat, doc, query));
+        }
+        int[] docs = new int[collector.size()];
+        collector.drainDescending(docs, new float[docs.length]);
+        return docs;
+    }
+
+    private static float dot(float[] flat, int doc, float[] query) {
+        float dot = 0;
+        int offset = doc * DIMENSIONS;
+        for (int i = 0; i < DIMENSIONS; i++) {
+            dot += flat[offset + i] * query[i];
+        }
+        return dot;
+    }
+}
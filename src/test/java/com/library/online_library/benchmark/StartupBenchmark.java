@@ -0,0 +1,93 @@
+package com.library.online_library.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Time from process launch to the first successful {@code GET /books} response.
+ * Each run starts a fresh JVM with the given options and kills it once the
+ * request succeeds. Not part of the test suite. Compare the default startup
+ * with the prod build from {@code target/cds}:
+ * <pre>
+ * java -cp target/test-classes com.library.online_library.benchmark.StartupBenchmark target/online-library-0.0.1-SNAPSHOT.jar
+ * java -cp target/test-classes com.library.online_library.benchmark.StartupBenchmark target/cds/online-library-0.0.1-SNAPSHOT.jar \
+ *     -XX:SharedArchiveFile=target/cds/application.jsa -Dspring.aot.enabled=true -Dspring.profiles.active=prod
+ * </pre>
+ */
+public class StartupBenchmark {
+
+    private static final int RUNS = 5;
+    private static final Duration TIMEOUT = Duration.ofSeconds(60);
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("usage: StartupBenchmark <jar> [jvm options...]");
+            System.exit(1);
+        }
+        String jar = args[0];
+        List<String> jvmOptions = Arrays.asList(args).subList(1, args.length);
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+
+        long[] samples = new long[RUNS];
+        for (int run = 0; run < RUNS; run++) {
+            samples[run] = timeToFirstRequest(client, jar, jvmOptions);
+            System.out.printf("run %d: %d ms%n", run + 1, samples[run]);
+        }
+        Arrays.sort(samples);
+        System.out.printf("time-to-first-request: min=%d ms median=%d ms max=%d ms (%s)%n",
+                samples[0], samples[RUNS / 2], samples[RUNS - 1], String.join(" ", jvmOptions));
+    }
+
+    private static long timeToFirstRequest(HttpClient client, String jar, List<String> jvmOptions)
+            throws IOException, InterruptedException {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        command.addAll(jvmOptions);
+        command.add("-jar");
+        command.add(jar);
+        command.add("--server.port=" + port);
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/books?size=1"))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Application exited with code " + process.exitValue());
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return (System.nanoTime() - start) / 1_000_000;
+                    }
+                } catch (IOException notListeningYet) {
+                    // Keep polling until the connector accepts requests.
+                }
+                Thread.sleep(5);
+            }
+            throw new IllegalStateException("No successful response within " + TIMEOUT.toSeconds() + " s");
+        } finally {
+            process.destroyForcibly().waitFor();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.library.online_library.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import com.library.online_library.model.Book;
+import com.library.online_library.storage.StorageSnapshots;
+
+/**
+ * Restart-to-ready time with a large catalog for each storage mode:
+ * <ul>
+ * <li>in-memory: the schema is created and every book inserted again;</li>
+ * <li>file: the existing H2 file database is reopened;</li>
+ * <li>snapshot: the database file is restored from a {@code BACKUP TO} zip, then opened.</li>
+ * </ul>
+ * "Ready" means the first page can be served; the full keyset scan that the
+ * in-memory indexes run on startup is timed separately. Not part of the test
+ * suite; run with
+ * {@code java -cp target/classes:target/test-classes:<h2 jar> com.library.online_library.benchmark.StorageRestartBenchmark 1000000}.
+ * An optional second argument replaces the file URL options, e.g.
+ * {@code ";CACHE_SIZE=131072"} or {@code ";WRITE_DELAY=0"}.
+ */
+public class StorageRestartBenchmark {
+
+    // application-file.properties keeps H2's defaults (16 MB cache, 500 ms write delay)
+    private static final String DEFAULT_FILE_OPTIONS = "";
+    private static final int BATCH_SIZE = 1000;
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        String fileOptions = args.length > 1 ? args[1] : DEFAULT_FILE_OPTIONS;
+        List<Book> books = Benchmarks.books(count, 42);
+        String schema = schema();
+
+        Path directory = Files.createTempDirectory("library-storage");
+        Path database = directory.resolve("librarydb");
+        Path snapshot = directory.resolve("librarydb-snapshot.zip");
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:file:" + database + fileOptions, "sa", "")) {
+            long loadMillis = timed(() -> load(connection, schema, books));
+            long backupMillis = timed(() -> StorageSnapshots.backup(connection, snapshot));
+            System.out.printf("books=%d initial load=%d ms, backup=%d ms (db %.1f MB, snapshot %.1f MB)%n", count,
+                    loadMillis, backupMillis, Files.size(Path.of(database + ".mv.db")) / 1_048_576.0,
+                    Files.size(snapshot) / 1_048_576.0);
+            execute(connection, "SHUTDOWN");
+        } catch (SQLException closedByShutdown) {
+            // SHUTDOWN closes the connection underneath try-with-resources.
+        }
+
+        restart("in-memory", "jdbc:h2:mem:restart;DB_CLOSE_DELAY=-1", connection -> load(connection, schema, books));
+        restart("file", "jdbc:h2:file:" + database + fileOptions, connection -> { });
+        Files.delete(Path.of(database + ".mv.db"));
+        long restoreMillis = timed(() -> StorageSnapshots.restore(snapshot, directory));
+        System.out.printf("snapshot restore (unzip)=%d ms%n", restoreMillis);
+        restart("snapshot", "jdbc:h2:file:" + database + fileOptions, connection -> { });
+    }
+
+    private static void restart(String mode, String url, ConnectionTask prepare) throws Exception {
+        long start = System.nanoTime();
+        try (Connection connection = DriverManager.getConnection(url, "sa", "")) {
+            prepare.run(connection);
+            firstPage(connection);
+            long readyMillis = (System.nanoTime() - start) / 1_000_000;
+            long scanMillis = timed(() -> fullScan(connection));
+            System.out.printf("%-9s ready=%6d ms, full keyset scan=%6d ms%n", mode, readyMillis, scanMillis);
+            execute(connection, "SHUTDOWN");
+        } catch (SQLException closedByShutdown) {
+            // SHUTDOWN closes the connection underneath try-with-resources.
+        }
+    }
+
+    private static void load(Connection connection, String schema, List<Book> books) throws SQLException {
+        for (String statement : schema.split(";")) {
+            if (!statement.isBlank()) {
+                execute(connection, statement);
+            }
+        }
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO books "
+                + "(title, author, isbn, publication_year, description, version) VALUES (?, ?, ?, ?, ?, 0)")) {
+            int batched = 0;
+            for (Book book : books) {
+                insert.setString(1, book.getTitle());
+                insert.setString(2, book.getAuthor());
+                insert.setString(3, book.getIsbn());
+                insert.setInt(4, book.getPublicationYear());
+                insert.setString(5, book.getDescription());
+                insert.addBatch();
+                if (++batched % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private static void firstPage(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+                ResultSet rows = statement.executeQuery("SELECT * FROM books ORDER BY id LIMIT 10")) {
+            while (rows.next()) {
+                rows.getString("title");
+            }
+        }
+    }
+
+    // Same access pattern as BookIndexManager: pages of 5000 rows after the last seen id
+    private static void fullScan(Connection connection) throws SQLException {
+        long lastId = 0;
+        int read;
+        try (PreparedStatement page = connection.prepareStatement(
+                "SELECT * FROM books WHERE id > ? ORDER BY id LIMIT 5000")) {
+            do {
+                page.setLong(1, lastId);
+                read = 0;
+                try (ResultSet rows = page.executeQuery()) {
+                    while (rows.next()) {
+                        lastId = rows.getLong("id");
+                        read++;
+                    }
+                }
+            } while (read == 5000);
+        }
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static String schema() throws IOException {
+        try (InputStream in = StorageRestartBenchmark.class.getResourceAsStream("/db/schema.sql")) {
+            String script = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            return script.replaceAll("(?m)^--.*$", "");
+        }
+    }
+
+    private static long timed(ConnectionlessTask task) throws Exception {
+        long start = System.nanoTime();
+        task.run();
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    @FunctionalInterface
+    private interface ConnectionTask {
+        void run(Connection connection) throws Exception;
+    }
+
+    @FunctionalInterface
+    private interface ConnectionlessTask {
+        void run() throws Exception;
+    }
+}
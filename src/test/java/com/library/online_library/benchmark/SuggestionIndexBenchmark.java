@@ -0,0 +1,60 @@
+package com.library.online_library.benchmark;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import com.library.online_library.model.Book;
+import com.library.online_library.search.SuggestionIndex;
+
+/**
+ * Memory footprint and lookup latency of {@link SuggestionIndex} at catalog
+ * scale. Not part of the test suite; run from the IDE or with
+ * {@code java -cp target/classes:target/test-classes com.library.online_library.benchmark.SuggestionIndexBenchmark 1000000}.
+ */
+public class SuggestionIndexBenchmark {
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int lookups = 200_000;
+
+        List<Book> books = Benchmarks.books(count, 42);
+        long baseline = Benchmarks.usedHeapAfterGc();
+
+        SuggestionIndex index = new SuggestionIndex(10);
+        long start = System.nanoTime();
+        index.clear();
+        for (Book book : books) {
+            index.index(book);
+        }
+        index.rebuildCompleted();
+        long buildMillis = (System.nanoTime() - start) / 1_000_000;
+        long footprint = Benchmarks.usedHeapAfterGc() - baseline;
+
+        SplittableRandom random = new SplittableRandom(7);
+        String[] prefixes = new String[lookups];
+        for (int i = 0; i < lookups; i++) {
+            Book book = books.get(random.nextInt(count));
+            String text = random.nextBoolean() ? book.getTitle() : book.getAuthor();
+            prefixes[i] = text.substring(0, Math.min(text.length(), 1 + random.nextInt(6)));
+        }
+
+        // Warm up the JIT before measuring.
+        for (int i = 0; i < lookups; i++) {
+            index.suggest(prefixes[i], 10);
+        }
+        long[] samples = new long[lookups];
+        for (int i = 0; i < lookups; i++) {
+            long lookupStart = System.nanoTime();
+            index.suggest(prefixes[i], 10);
+            samples[i] = System.nanoTime() - lookupStart;
+        }
+        Arrays.sort(samples);
+
+        System.out.printf("books=%d build=%d ms heap=%.1f MB (%.0f bytes/book)%n",
+                count, buildMillis, footprint / 1_048_576.0, (double) footprint / count);
+        System.out.printf("suggest latency: p50=%.1f us p99=%.1f us p99.9=%.1f us%n",
+                Benchmarks.percentileMicros(samples, 50), Benchmarks.percentileMicros(samples, 99),
+                Benchmarks.percentileMicros(samples, 99.9));
+    }
+}
@@ -1,16 +1,20 @@
 package com.library.online_library.controller;
 
+import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -22,6 +26,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
@@ -30,7 +35,12 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.library.online_library.exception.GlobalExceptionHandler;
 import com.library.online_library.exception.ResourceNotFoundException;
 import com.library.online_library.model.Book;
+import com.library.online_library.model.BookChange;
+import com.library.online_library.search.Suggestion;
 import com.library.online_library.service.BookService;
+import com.library.online_library.service.ChangeBatch;
+import com.library.online_library.service.ChangeFeedService;
+import com.library.online_library.service.PageEnvelope;
 import com.library.online_library.serviceAI.AiService;
 
 class BookControllerTest {
@@ -43,6 +53,9 @@ class BookControllerTest {
     @Mock
     private AiService aiService;
 
+    @Mock
+    private ChangeFeedService changeFeedService;
+
     @InjectMocks
     private BookController bookController;
 
@@ -112,14 +125,6 @@ class BookControllerTest {
 
     @Test
     void updateBook_ShouldReturnUpdatedBook_WhenBookExists() throws Exception {
-        Book existingBook = new Book();
-        existingBook.setId(1L);
-        existingBook.setTitle("Old Title");
-        existingBook.setAuthor("John Doe");
-        existingBook.setIsbn("9789876543210");
-        existingBook.setPublicationYear(2000);
-        existingBook.setDescription("Old description");
-
         Book updatedBook = new Book();
         updatedBook.setTitle("The AI Revolution");
         updatedBook.setAuthor("Jane Smith");
@@ -127,8 +132,7 @@ class BookControllerTest {
         updatedBook.setPublicationYear(2100);
         updatedBook.setDescription("An in-depth look into how artificial intelligence is shaping the world.");
 
-        when(bookService.getBookById(1L)).thenReturn(Optional.of(existingBook));
-        when(bookService.saveBook(any(Book.class))).thenReturn(updatedBook);
+        when(bookService.updateBook(eq(1L), any(Book.class))).thenReturn(Optional.of(updatedBook));
 
         mockMvc.perform(put("/books/1")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -140,7 +144,7 @@ class BookControllerTest {
                 .andExpect(jsonPath("$.publicationYear").value(2100))
                 .andExpect(jsonPath("$.description").value("An in-depth look into how artificial intelligence is shaping the world."));
 
-        verify(bookService, times(1)).saveBook(any(Book.class));
+        verify(bookService, times(1)).updateBook(eq(1L), any(Book.class));
     }
 
     @Test
@@ -205,7 +209,7 @@ class BookControllerTest {
         updatedBook.setPublicationYear(2100);
         updatedBook.setDescription("AI insights");
 
-        when(bookService.getBookById(1L)).thenThrow(new ResourceNotFoundException("Book not found with ID: 1"));
+        when(bookService.updateBook(eq(1L), any(Book.class))).thenReturn(Optional.empty());
 
         mockMvc.perform(put("/books/1")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -219,10 +223,7 @@ class BookControllerTest {
 
     @Test
     void deleteBook_ShouldReturn204_WhenBookExists() throws Exception {
-        Book book = new Book();
-        book.setId(1L);
-        when(bookService.getBookById(1L)).thenReturn(Optional.of(book));
-        doNothing().when(bookService).deleteBook(1L);
+        when(bookService.deleteBook(1L)).thenReturn(true);
 
         mockMvc.perform(delete("/books/1"))
                 .andExpect(status().isNoContent());
@@ -232,14 +233,12 @@ class BookControllerTest {
 
     @Test
     void deleteBook_ShouldReturn404_WhenBookDoesNotExist() throws Exception {
-        when(bookService.getBookById(1L)).thenThrow(new ResourceNotFoundException("Book not found with ID: 1"));
+        when(bookService.deleteBook(1L)).thenReturn(false);
 
         mockMvc.perform(delete("/books/1"))
                 .andExpect(status().isNotFound()) 
                 .andExpect(jsonPath("$.error").value("Resource Not Found")) 
                 .andExpect(jsonPath("$.message").value("Book not found with ID: 1"));
-
-        verify(bookService, never()).deleteBook(anyLong());
     }
 
     @Test
@@ -263,4 +262,159 @@ class BookControllerTest {
 
         verify(bookService, times(1)).searchBooks("Spring Boot", "John Doe");
     }
+
+    @Test
+    void searchBooks_ShouldUseRankedSearch_WhenQueryProvided() throws Exception {
+        Book book = new Book();
+        book.setTitle("Java Concurrency in Practice");
+        book.setAuthor("Brian Goetz");
+
+        when(bookService.rankedSearch("java concurrency", 5, null, null)).thenReturn(List.of(book));
+
+        mockMvc.perform(get("/books/search")
+                .param("q", "java concurrency")
+                .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value("Java Concurrency in Practice"));
+
+        verify(bookService, times(1)).rankedSearch("java concurrency", 5, null, null);
+        verify(bookService, never()).searchBooks(any(), any());
+    }
+
+    @Test
+    void suggest_ShouldReturnSuggestions() throws Exception {
+        when(bookService.suggest("clean", 5)).thenReturn(List.of(new Suggestion("Clean Code", 2)));
+
+        mockMvc.perform(get("/books/suggest")
+                .param("prefix", "clean")
+                .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].text").value("Clean Code"))
+                .andExpect(jsonPath("$[0].weight").value(2));
+
+        verify(bookService, times(1)).suggest("clean", 5);
+    }
+
+    @Test
+    void getSimilarBooks_ShouldReturn404_WhenBookDoesNotExist() throws Exception {
+        when(bookService.getBookById(1L)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/books/1/similar"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Book not found with ID: 1"));
+
+        verify(bookService, never()).findSimilarBooks(anyLong(), anyInt());
+    }
+
+    @Test
+    void searchBooks_ShouldFilterByYear_WhenRangeGiven() throws Exception {
+        Book book = new Book();
+        book.setTitle("Clean Architecture");
+        List<Book> matches = List.of(book);
+
+        when(bookService.searchBooks("Clean", null)).thenReturn(matches);
+        when(bookService.filterByYear(matches, 2010, null, true)).thenReturn(matches);
+
+        mockMvc.perform(get("/books/search")
+                .param("title", "Clean")
+                .param("minYear", "2010")
+                .param("sort", "publicationYear,desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value("Clean Architecture"));
+
+        verify(bookService, times(1)).filterByYear(matches, 2010, null, true);
+    }
+
+    @Test
+    void searchBooks_ShouldSelectOnlyRequestedFields_WhenFieldsGiven() throws Exception {
+        when(bookService.rankedSearchIds("java", 20, 2000, null)).thenReturn(List.of(3L));
+        when(bookService.getBookFieldsByIds(List.of("id", "title"), List.of(3L)))
+                .thenReturn(new PageEnvelope<>(List.of(Map.of("id", 3L, "title", "Effective Java")), 0, 1, 1L, false));
+
+        mockMvc.perform(get("/books/search")
+                .param("q", "java")
+                .param("minYear", "2000")
+                .param("fields", "id,title"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].title").value("Effective Java"))
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.hasNext").value(false));
+
+        verify(bookService, never()).rankedSearch(any(), anyInt(), any(), any());
+        verify(bookService, never()).filterIdsByYear(any(), any(), any(), anyBoolean());
+    }
+
+    @Test
+    void searchBooks_ShouldRankWithinYearRange_AndKeepRelevanceOrder() throws Exception {
+        Book book = new Book();
+        book.setTitle("Effective Java");
+        when(bookService.rankedSearch("java", 20, 2000, 2020)).thenReturn(List.of(book));
+
+        mockMvc.perform(get("/books/search")
+                .param("q", "java")
+                .param("minYear", "2000")
+                .param("maxYear", "2020"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value("Effective Java"));
+
+        verify(bookService, never()).filterByYear(any(), any(), any(), anyBoolean());
+    }
+
+    @Test
+    void getAllBooks_ShouldReturn400_WhenSortIsUnsupported() throws Exception {
+        mockMvc.perform(get("/books")
+                .param("sort", "title"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Bad Request"));
+
+        verify(bookService, never()).getBooksByYear(any(), any(), anyBoolean(), any());
+    }
+
+    @Test
+    void getChanges_ShouldReturnChangesSinceSequence() throws Exception {
+        BookChange change = new BookChange(7L, BookChange.Operation.UPDATED, 2L, Instant.EPOCH);
+        change.setSeq(11L);
+        when(changeFeedService.getChangesSince(10L, 100)).thenReturn(new ChangeBatch(List.of(change), 11L, false));
+
+        mockMvc.perform(get("/books/changes")
+                .param("since", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes[0].bookId").value(7))
+                .andExpect(jsonPath("$.changes[0].operation").value("UPDATED"))
+                .andExpect(jsonPath("$.nextSince").value(11));
+    }
+
+    @Test
+    void getBookById_ShouldReturnOnlyRequestedFields() throws Exception {
+        when(bookService.getBookFieldsById(1L, List.of("id", "title")))
+                .thenReturn(Optional.of(Map.of("id", 1L, "title", "Clean Code")));
+
+        mockMvc.perform(get("/books/1")
+                .param("fields", "id,title"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Clean Code"))
+                .andExpect(jsonPath("$.author").doesNotExist());
+
+        verify(bookService, never()).getBookById(anyLong());
+    }
+
+    @Test
+    void getAllBooks_ShouldReturn400_WhenFieldIsUnknown() throws Exception {
+        mockMvc.perform(get("/books")
+                .param("fields", "id,price"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Unknown field: price (allowed: id,title,author,isbn,publicationYear,description,version)"));
+    }
+
+    @Test
+    void getBookById_ShouldReturnCbor_WhenRequested() throws Exception {
+        Book book = new Book("Clean Code", "Robert C. Martin", "9780132350884", 2008, "A handbook");
+        book.setId(1L);
+        when(bookService.getBookById(1L)).thenReturn(Optional.of(book));
+
+        mockMvc.perform(get("/books/1")
+                .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR));
+    }
 }
@@ -0,0 +1,74 @@
+package com.library.online_library.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.library.online_library.index.BookChangeEvent;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private ReadYourWritesGuard guard;
+    private ReadWriteRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() {
+        guard = new ReadYourWritesGuard(60_000);
+        routing = new ReadWriteRoutingDataSource(guard);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void determineCurrentLookupKey_ShouldUseReplica_WhenTransactionIsReadOnly() {
+        asClient("reader");
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals(ReadWriteRoutingDataSource.Route.REPLICA, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void determineCurrentLookupKey_ShouldUsePrimary_WhenTransactionWrites() {
+        asClient("writer");
+
+        assertEquals(ReadWriteRoutingDataSource.Route.PRIMARY, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void determineCurrentLookupKey_ShouldUsePrimary_WhenClientWroteRecently() {
+        asClient("writer");
+        guard.onBookChanged(BookChangeEvent.deleted(1L));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals(ReadWriteRoutingDataSource.Route.PRIMARY, routing.determineCurrentLookupKey());
+
+        asClient("someone-else");
+        assertEquals(ReadWriteRoutingDataSource.Route.REPLICA, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void mustReadFromPrimary_ShouldExpire_AfterWindow() throws InterruptedException {
+        guard = new ReadYourWritesGuard(1);
+        asClient("writer");
+        guard.onBookChanged(BookChangeEvent.deleted(1L));
+        Thread.sleep(5);
+
+        assertFalse(guard.mustReadFromPrimary());
+    }
+
+    private static void asClient(String clientId) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(ReadYourWritesGuard.CLIENT_ID_HEADER, clientId);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+}
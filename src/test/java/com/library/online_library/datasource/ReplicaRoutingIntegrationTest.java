@@ -0,0 +1,123 @@
+package com.library.online_library.datasource;
+
+import java.util.OptionalLong;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.library.online_library.index.BookCounter;
+
+// Replication runs only when the test calls it, so what the replica serves is deterministic
+@SpringBootTest(properties = {
+    "library.datasource.primary.url=jdbc:h2:mem:routingprimary;DB_CLOSE_DELAY=-1",
+    "library.datasource.replica.url=jdbc:h2:mem:routingreplica",
+    "library.datasource.replication.url=jdbc:h2:mem:routingreplica;DB_CLOSE_DELAY=-1",
+    "library.datasource.replication.interval-ms=3600000",
+    "library.warmup.enabled=false"
+})
+@ActiveProfiles("replica")
+@AutoConfigureMockMvc
+class ReplicaRoutingIntegrationTest {
+
+    private static final String UPDATE = "{\"title\":\"Changed Title\",\"author\":\"Jane Smith\","
+            + "\"isbn\":\"9798350614244\",\"publicationYear\":2022,\"description\":\"Updated.\"}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ReplicationStandIn replication;
+
+    @Autowired
+    private BookCounter bookCounter;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @BeforeEach
+    void setUp() {
+        replication.replicate();
+    }
+
+    @Test
+    void put_ShouldWriteToPrimary_AndReachReplicaThroughReplication() throws Exception {
+        mockMvc.perform(get("/books/1").header(ReadYourWritesGuard.CLIENT_ID_HEADER, "reader"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("The AI Revolution"));
+
+        mockMvc.perform(put("/books/1").header(ReadYourWritesGuard.CLIENT_ID_HEADER, "writer")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(UPDATE))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(1));
+
+        // The writer reads its own change from the primary; everyone else still reads the lagging replica
+        mockMvc.perform(get("/books/1").header(ReadYourWritesGuard.CLIENT_ID_HEADER, "writer"))
+                .andExpect(jsonPath("$.title").value("Changed Title"))
+                .andExpect(jsonPath("$.version").value(1));
+        mockMvc.perform(get("/books/1").header(ReadYourWritesGuard.CLIENT_ID_HEADER, "reader"))
+                .andExpect(jsonPath("$.title").value("The AI Revolution"))
+                .andExpect(jsonPath("$.version").value(0));
+
+        replication.replicate();
+
+        mockMvc.perform(get("/books/1").header(ReadYourWritesGuard.CLIENT_ID_HEADER, "reader"))
+                .andExpect(jsonPath("$.title").value("Changed Title"))
+                .andExpect(jsonPath("$.version").value(1));
+    }
+
+    @Test
+    void search_ShouldNotCacheReplicaResults_ThatMissTheLatestWrite() throws Exception {
+        mockMvc.perform(put("/books/2").header(ReadYourWritesGuard.CLIENT_ID_HEADER, "writer")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(UPDATE.replace("Changed Title", "Freshly Renamed")))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/books/search").param("title", "Freshly Renamed")
+                .header(ReadYourWritesGuard.CLIENT_ID_HEADER, "reader"))
+                .andExpect(jsonPath("$.length()").value(0));
+        mockMvc.perform(get("/books/search").param("title", "Freshly Renamed")
+                .header(ReadYourWritesGuard.CLIENT_ID_HEADER, "writer"))
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    void reconcile_ShouldCountOnPrimary_WhileReplicaLags() throws Exception {
+        bookCounter.reconcile();
+        long before = bookCounter.total().getAsLong();
+
+        mockMvc.perform(post("/books").header(ReadYourWritesGuard.CLIENT_ID_HEADER, "writer")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(UPDATE))
+                .andExpect(status().isOk());
+        bookCounter.reconcile();
+
+        assertEquals(OptionalLong.of(before + 1), bookCounter.total());
+    }
+
+    @Test
+    void replicaPool_ShouldRefuseWrites() {
+        JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+
+        assertThrows(DataAccessException.class, () -> replica.update("DELETE FROM books"));
+    }
+}
@@ -0,0 +1,123 @@
+package com.library.online_library.datasource;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.function.LongFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+class ReplicationStandInTest {
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+    private ReplicationStandIn replication;
+    private String replicaUrl;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = Long.toString(System.nanoTime());
+        DriverManagerDataSource primaryDataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:primary" + suffix + ";DB_CLOSE_DELAY=-1", "sa", "");
+        replicaUrl = "jdbc:h2:mem:replica" + suffix;
+        DriverManagerDataSource replicaDataSource = new DriverManagerDataSource(replicaUrl + ";DB_CLOSE_DELAY=-1", "sa", "");
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        replication = new ReplicationStandIn(primaryDataSource, replicaDataSource);
+
+        new ResourceDatabasePopulator(new ClassPathResource("db/schema.sql")).execute(primaryDataSource);
+        replication.prepareReplica("reader", "secret");
+        insertBook(1L, "Clean Code", 1L);
+        logChange(1L, "CREATED", 1L);
+    }
+
+    @Test
+    void initialize_ShouldCopyPrimary() {
+        replication.initialize();
+
+        assertEquals("Clean Code", titleInReplica(1L));
+        assertEquals(1L, replication.getAppliedSeq());
+    }
+
+    @Test
+    void replicate_ShouldApplyLoggedChanges() {
+        replication.initialize();
+        primary.update("UPDATE books SET title = 'Clean Architecture', version = 2 WHERE id = 1");
+        logChange(1L, "UPDATED", 2L);
+        insertBook(2L, "Refactoring", 1L);
+        logChange(2L, "CREATED", 1L);
+
+        replication.replicate();
+
+        assertEquals("Clean Architecture", titleInReplica(1L));
+        assertEquals("Refactoring", titleInReplica(2L));
+        assertEquals(3L, replication.getAppliedSeq());
+    }
+
+    @Test
+    void replicate_ShouldRemoveDeletedBooks() {
+        replication.initialize();
+        primary.update("DELETE FROM books WHERE id = 1");
+        logChange(1L, "DELETED", null);
+
+        replication.replicate();
+
+        assertEquals(0, replica.queryForObject("SELECT COUNT(*) FROM books", Integer.class));
+        assertEquals(2, replica.queryForObject("SELECT COUNT(*) FROM book_changes", Integer.class));
+    }
+
+    @Test
+    void replicate_ShouldStopBelowSeqsStillInFlight() {
+        replication.initialize();
+        long[] visibleThrough = {1L};
+        replication.setChangeLogReads(new ReplicationStandIn.ChangeLogReads() {
+            @Override
+            public <T> T read(LongFunction<T> read) {
+                return read.apply(visibleThrough[0]);
+            }
+        });
+        insertBook(2L, "Refactoring", 1L);
+        logChange(2L, "CREATED", 1L);
+
+        replication.replicate();
+        assertEquals(1L, replication.getAppliedSeq());
+
+        visibleThrough[0] = Long.MAX_VALUE;
+        replication.replicate();
+        assertEquals(2L, replication.getAppliedSeq());
+        assertEquals("Refactoring", titleInReplica(2L));
+    }
+
+    @Test
+    void prepareReplica_ShouldCreateUser_ThatCanOnlyRead() {
+        replication.initialize();
+        JdbcTemplate reader = new JdbcTemplate(new DriverManagerDataSource(replicaUrl, "reader", "secret"));
+
+        assertEquals(1, reader.queryForObject("SELECT COUNT(*) FROM books", Integer.class));
+        assertThrows(DataAccessException.class, () -> reader.update("DELETE FROM books"));
+        assertThrows(DataAccessException.class, () -> reader.update(
+                "INSERT INTO book_changes (book_id, operation, timestamp) VALUES (1, 'DELETED', CURRENT_TIMESTAMP)"));
+        assertEquals("Clean Code", titleInReplica(1L));
+    }
+
+    private void insertBook(Long id, String title, Long version) {
+        primary.update("INSERT INTO books (id, title, author, isbn, publication_year, description, version) "
+                + "VALUES (?, ?, 'Author', '9780132350884', 2008, NULL, ?)", id, title, version);
+    }
+
+    private void logChange(Long bookId, String operation, Long version) {
+        primary.update("INSERT INTO book_changes (book_id, operation, version, timestamp) VALUES (?, ?, ?, ?)",
+                bookId, operation, version, Timestamp.from(Instant.now()));
+    }
+
+    private String titleInReplica(Long id) {
+        return replica.queryForObject("SELECT title FROM books WHERE id = ?", String.class, id);
+    }
+}
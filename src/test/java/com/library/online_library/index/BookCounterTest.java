@@ -0,0 +1,114 @@
+package com.library.online_library.index;
+
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.MockitoAnnotations;
+
+import com.library.online_library.model.Book;
+import com.library.online_library.repository.BookRepository;
+
+class BookCounterTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @InjectMocks
+    private BookCounter bookCounter;
+
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        book = new Book();
+        book.setId(1L);
+    }
+
+    @Test
+    void total_ShouldBeEmpty_UntilReconciled() {
+        commit(BookChangeEvent.created(book));
+
+        assertEquals(OptionalLong.empty(), bookCounter.total());
+    }
+
+    @Test
+    void total_ShouldFollowCreatesAndDeletes() {
+        when(bookRepository.countOnPrimary()).thenReturn(10L);
+        bookCounter.reconcile();
+
+        commit(BookChangeEvent.created(book));
+        commit(BookChangeEvent.updated(book));
+        commit(BookChangeEvent.deleted(2L));
+        commit(BookChangeEvent.deleted(3L));
+
+        assertEquals(OptionalLong.of(9), bookCounter.total());
+    }
+
+    @Test
+    void reconcile_ShouldCorrectDrift() {
+        when(bookRepository.countOnPrimary()).thenReturn(10L, 12L);
+        bookCounter.reconcile();
+
+        bookCounter.reconcile();
+
+        assertEquals(OptionalLong.of(12), bookCounter.total());
+    }
+
+    @Test
+    void reconcile_ShouldKeepTotal_WhileWriteIsInFlight() {
+        when(bookRepository.countOnPrimary()).thenReturn(10L, 11L);
+        bookCounter.reconcile();
+        BookChangeEvent created = BookChangeEvent.created(book);
+        bookCounter.onBookWrite(created);
+
+        // The row may already be visible to the count, but the event has not been applied yet
+        bookCounter.reconcile();
+        bookCounter.onBookChanged(created);
+
+        assertEquals(OptionalLong.of(11), bookCounter.total());
+        verify(bookRepository, times(1)).countOnPrimary();
+    }
+
+    @Test
+    void reconcile_ShouldDiscardCount_WhenWriteStartsDuringIt() {
+        BookChangeEvent created = BookChangeEvent.created(book);
+        when(bookRepository.countOnPrimary()).thenReturn(10L).thenAnswer(invocation -> {
+            bookCounter.onBookWrite(created);
+            return 10L;
+        });
+        bookCounter.reconcile();
+
+        bookCounter.reconcile();
+        bookCounter.onBookChanged(created);
+
+        assertEquals(OptionalLong.of(11), bookCounter.total());
+    }
+
+    @Test
+    void reconcile_ShouldCount_AfterRolledBackWrite() {
+        when(bookRepository.countOnPrimary()).thenReturn(10L, 10L);
+        bookCounter.reconcile();
+        BookChangeEvent created = BookChangeEvent.created(book);
+        bookCounter.onBookWrite(created);
+        bookCounter.onBookWriteRolledBack(created);
+
+        bookCounter.reconcile();
+
+        assertEquals(OptionalLong.of(10), bookCounter.total());
+        verify(bookRepository, times(2)).countOnPrimary();
+    }
+
+    // What a committed write delivers: the in-transaction event, then the after-commit one
+    private void commit(BookChangeEvent event) {
+        bookCounter.onBookWrite(event);
+        bookCounter.onBookChanged(event);
+    }
+}
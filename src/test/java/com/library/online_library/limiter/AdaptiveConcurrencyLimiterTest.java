@@ -0,0 +1,120 @@
+package com.library.online_library.limiter;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+    @Test
+    void tryAcquire_ShouldRejectRequestsAboveLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("read", 2, 1, 10, 100, 0.5);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(1, limiter.getRejected());
+
+        limiter.release(FAST, false);
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void release_ShouldShrinkLimit_WhenLatencyExceedsThreshold() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("search", 8, 1, 10, 100, 0.5);
+
+        limiter.tryAcquire();
+        limiter.release(SLOW, false);
+
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    void release_ShouldShrinkLimit_WhenRequestFails() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("write", 8, 1, 10, 100, 0.5);
+
+        limiter.tryAcquire();
+        limiter.release(FAST, true);
+
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    void release_ShouldBackOffOnce_ForBurstAdmittedBeforeTheCut() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("search", 16, 1, 20, 100, 0.5);
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire();
+        }
+
+        for (int i = 0; i < 10; i++) {
+            limiter.release(SLOW, false);
+        }
+
+        assertEquals(8, limiter.getLimit());
+    }
+
+    @Test
+    void release_ShouldBackOffAgain_ForRequestAdmittedAfterTheCut() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("search", 16, 1, 20, 100, 0.5);
+        limiter.tryAcquire();
+        limiter.release(SLOW, false);
+        Thread.sleep(2);
+
+        limiter.tryAcquire();
+        limiter.release(0, true);
+
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    void release_ShouldNeverGoBelowMinLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("ai", 4, 2, 10, 100, 0.5);
+
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire();
+            limiter.release(0, true);
+        }
+
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    void release_ShouldGrowLimit_WhenSaturatedAndFast() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("read", 2, 1, 10, 100, 0.5);
+
+        for (int i = 0; i < 20; i++) {
+            limiter.tryAcquire();
+            limiter.tryAcquire();
+            limiter.release(FAST, false);
+            limiter.release(FAST, false);
+        }
+
+        assertTrue(limiter.getLimit() > 2);
+        assertTrue(limiter.getLimit() <= 10);
+    }
+
+    @Test
+    void release_ShouldNotGrowLimit_WhenUnderused() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("read", 8, 1, 10, 100, 0.5);
+
+        for (int i = 0; i < 50; i++) {
+            limiter.tryAcquire();
+            limiter.release(FAST, false);
+        }
+
+        assertEquals(8, limiter.getLimit());
+    }
+
+    @Test
+    void constructor_ShouldRejectInvalidLimits() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new AdaptiveConcurrencyLimiter("read", 5, 10, 2, 100, 0.5));
+    }
+}
@@ -0,0 +1,185 @@
+package com.library.online_library.limiter;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.library.online_library.exception.GlobalExceptionHandler;
+
+class ConcurrencyLimitInterceptorTest {
+
+    private MockMvc mockMvc;
+    private Map<RequestClass, AdaptiveConcurrencyLimiter> limiters;
+    private TestController controller;
+
+    @BeforeEach
+    void setUp() {
+        limiters = new EnumMap<>(RequestClass.class);
+        for (RequestClass requestClass : RequestClass.values()) {
+            limiters.put(requestClass, new AdaptiveConcurrencyLimiter(requestClass.propertyKey(), 4, 1, 4, 10_000, 0.5));
+        }
+        controller = new TestController();
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .addInterceptors(new ConcurrencyLimitInterceptor(limiters))
+                .build();
+    }
+
+    @Test
+    void preHandle_ShouldUseAnnotatedClass_BeforeHttpMethod() throws Exception {
+        saturate(RequestClass.SEARCH);
+
+        mockMvc.perform(get("/books/search"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.message", containsString("search")));
+        mockMvc.perform(get("/books/plain")).andExpect(status().isOk());
+    }
+
+    @Test
+    void preHandle_ShouldTreatUnannotatedGetAsRead() throws Exception {
+        saturate(RequestClass.READ);
+
+        mockMvc.perform(get("/books/plain"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.message", containsString("read")));
+        mockMvc.perform(post("/books/plain")).andExpect(status().isOk());
+    }
+
+    @Test
+    void preHandle_ShouldTreatOtherMethodsAsWrite() throws Exception {
+        saturate(RequestClass.WRITE);
+
+        mockMvc.perform(post("/books/plain"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.message", containsString("write")));
+        mockMvc.perform(get("/books/plain")).andExpect(status().isOk());
+    }
+
+    @Test
+    void preHandle_ShouldKeepSingleBookReadsAvailable_WhenListPagesAreSaturated() throws Exception {
+        saturate(RequestClass.LIST);
+
+        mockMvc.perform(get("/books"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.message", containsString("list")));
+        mockMvc.perform(get("/books/plain")).andExpect(status().isOk());
+    }
+
+    @Test
+    void preHandle_ShouldReturn503WithRetryAfter_WhenLimitIsReached() throws Exception {
+        saturate(RequestClass.READ);
+
+        mockMvc.perform(get("/books/plain"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(jsonPath("$.error").value("Service Overloaded"));
+        assertEquals(1, limiters.get(RequestClass.READ).getRejected());
+        assertEquals(0, controller.calls);
+    }
+
+    @Test
+    void afterCompletion_ShouldReleaseSlot_WhenRequestSucceeds() throws Exception {
+        mockMvc.perform(get("/books/plain")).andExpect(status().isOk());
+
+        assertEquals(1, controller.calls);
+        assertEquals(0, limiters.get(RequestClass.READ).getInFlight());
+        assertEquals(4, limiters.get(RequestClass.READ).getLimit());
+    }
+
+    @Test
+    void afterCompletion_ShouldReleaseSlotAndBackOff_WhenHandlerThrows() throws Exception {
+        mockMvc.perform(get("/books/failing")).andExpect(status().isInternalServerError());
+
+        AdaptiveConcurrencyLimiter read = limiters.get(RequestClass.READ);
+        assertEquals(0, read.getInFlight());
+        assertEquals(2, read.getLimit());
+    }
+
+    @Test
+    void afterConcurrentHandlingStarted_ShouldReleaseSlot_WhileStreamStaysOpen() throws Exception {
+        MvcResult result = mockMvc.perform(get("/books/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        AdaptiveConcurrencyLimiter search = limiters.get(RequestClass.SEARCH);
+        assertEquals(0, search.getInFlight());
+
+        controller.emitter.complete();
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+
+        assertEquals(0, search.getInFlight());
+        assertEquals(4, search.getLimit());
+    }
+
+    private void saturate(RequestClass requestClass) {
+        AdaptiveConcurrencyLimiter limiter = limiters.get(requestClass);
+        for (int i = 0; i < limiter.getLimit(); i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+    }
+
+    @RestController
+    static class TestController {
+
+        private int calls;
+        private SseEmitter emitter;
+
+        @ConcurrencyLimited(RequestClass.LIST)
+        @GetMapping("/books")
+        public String list() {
+            calls++;
+            return "ok";
+        }
+
+        @GetMapping("/books/plain")
+        public String read() {
+            calls++;
+            return "ok";
+        }
+
+        @PostMapping("/books/plain")
+        public String write() {
+            calls++;
+            return "ok";
+        }
+
+        @ConcurrencyLimited(RequestClass.SEARCH)
+        @GetMapping("/books/search")
+        public String search() {
+            calls++;
+            return "ok";
+        }
+
+        @GetMapping("/books/failing")
+        public String failing() {
+            throw new IllegalStateException("boom");
+        }
+
+        @ConcurrencyLimited(RequestClass.SEARCH)
+        @GetMapping("/books/stream")
+        public SseEmitter stream() {
+            emitter = new SseEmitter(60_000L);
+            return emitter;
+        }
+    }
+}
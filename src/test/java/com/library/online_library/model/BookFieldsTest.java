@@ -0,0 +1,41 @@
+package com.library.online_library.model;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+import com.library.online_library.exception.InvalidRequestException;
+
+class BookFieldsTest {
+
+    @Test
+    void parse_ShouldKeepRequestedOrder_AndDropDuplicates() {
+        assertEquals(List.of("title", "id"), BookFields.parse(" title, id,title "));
+    }
+
+    @Test
+    void parse_ShouldReturnNull_WhenNoFieldsRequested() {
+        assertNull(BookFields.parse(" "));
+    }
+
+    @Test
+    void parse_ShouldReject_UnknownField() {
+        assertThrows(InvalidRequestException.class, () -> BookFields.parse("id,price"));
+    }
+
+    @Test
+    void project_ShouldReturnOnlyRequestedFields() {
+        Book book = new Book("Clean Code", "Robert C. Martin", "9780132350884", 2008, "A handbook");
+        book.setId(5L);
+
+        Map<String, Object> values = BookFields.project(book, List.of("id", "publicationYear"));
+
+        assertEquals(List.of("id", "publicationYear"), List.copyOf(values.keySet()));
+        assertEquals(5L, values.get("id"));
+        assertEquals(2008, values.get("publicationYear"));
+    }
+}
@@ -0,0 +1,90 @@
+package com.library.online_library.search;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.library.online_library.model.Book;
+
+class Bm25IndexTest {
+
+    private Bm25Index index;
+
+    @BeforeEach
+    void setUp() {
+        index = new Bm25Index(3.0f, 2.0f, 1.0f);
+        index.index(book(1L, "Clean Code", "Robert C. Martin", "A must-read book for software engineers."));
+        index.index(book(2L, "Java Concurrency in Practice", "Brian Goetz", "A detailed book on Java concurrency."));
+        index.index(book(3L, "Effective Java", "Joshua Bloch", "Best practices for writing Java code."));
+        index.index(book(4L, "Eloquent JavaScript", "Marijn Haverbeke", "A modern introduction to JavaScript."));
+    }
+
+    @Test
+    void search_ShouldRankTitleMatchesAboveDescriptionMatches() {
+        List<SearchHit> hits = index.search("code", 10);
+
+        assertEquals(2, hits.size());
+        assertEquals(1L, hits.get(0).bookId());
+        assertEquals(3L, hits.get(1).bookId());
+    }
+
+    @Test
+    void search_ShouldMatchStemmedTerms() {
+        List<SearchHit> hits = index.search("practices", 10);
+
+        assertEquals(2, hits.size());
+        assertTrue(hits.stream().anyMatch(hit -> hit.bookId() == 2L));
+        assertTrue(hits.stream().anyMatch(hit -> hit.bookId() == 3L));
+    }
+
+    @Test
+    void search_ShouldHonourLimit() {
+        List<SearchHit> hits = index.search("java", 1);
+
+        assertEquals(1, hits.size());
+    }
+
+    @Test
+    void search_ShouldReflectUpdatesAndDeletes() {
+        index.index(book(4L, "Eloquent Kotlin", "Marijn Haverbeke", "A modern introduction to Kotlin."));
+        index.remove(1L);
+
+        assertTrue(index.search("javascript", 10).isEmpty());
+        assertEquals(4L, index.search("kotlin", 10).get(0).bookId());
+        assertEquals(List.of(3L), index.search("code", 10).stream().map(SearchHit::bookId).toList());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void search_ShouldReturnEmpty_ForStopWordsOnly() {
+        assertTrue(index.search("the of and", 10).isEmpty());
+    }
+
+    @Test
+    void search_ShouldFillLimitFromFilteredBooks() {
+        List<SearchHit> hits = index.search("code", 1, bookId -> bookId != 1L);
+
+        assertEquals(List.of(3L), hits.stream().map(SearchHit::bookId).toList());
+    }
+
+    @Test
+    void matchingBookIds_ShouldReturnEveryLiveMatchOnce() {
+        index.remove(4L);
+
+        long[] ids = index.matchingBookIds("java code");
+
+        Arrays.sort(ids);
+        assertArrayEquals(new long[] {1L, 2L, 3L}, ids);
+    }
+
+    private static Book book(Long id, String title, String author, String description) {
+        Book book = new Book(title, author, "9780000000000", 2000, description);
+        book.setId(id);
+        return book;
+    }
+}
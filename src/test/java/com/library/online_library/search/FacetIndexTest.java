@@ -0,0 +1,70 @@
+package com.library.online_library.search;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.library.online_library.model.Book;
+
+class FacetIndexTest {
+
+    private FacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new FacetIndex();
+        index.index(book(1L, "Robert C. Martin", 2008));
+        index.index(book(2L, "Robert C. Martin", 2017));
+        index.index(book(3L, "Martin Fowler", 2018));
+        index.index(book(4L, "Kent Beck", 1999));
+    }
+
+    @Test
+    void facets_ShouldCountAuthorsAndDecades() {
+        Facets facets = index.facets(10);
+
+        assertEquals(4, facets.total());
+        assertEquals(new FacetCount("Robert C. Martin", 2), facets.authors().get(0));
+        assertEquals(3, facets.authors().size());
+        assertEquals(List.of(new FacetCount("1990s", 1), new FacetCount("2000s", 1), new FacetCount("2010s", 2)),
+                facets.decades());
+    }
+
+    @Test
+    void facets_ShouldFollowUpdatesAndDeletes() {
+        index.index(book(2L, "Martin Fowler", 2019));
+        index.remove(4L);
+
+        Facets facets = index.facets(1);
+
+        assertEquals(3, facets.total());
+        assertEquals(List.of(new FacetCount("Martin Fowler", 2)), facets.authors());
+        assertEquals(List.of(new FacetCount("2000s", 1), new FacetCount("2010s", 2)), facets.decades());
+    }
+
+    @Test
+    void facets_ShouldGroupAuthorsIgnoringCase() {
+        index.index(book(5L, "kent beck", 2004));
+
+        index.index(book(6L, "KENT BECK", 2005));
+
+        assertEquals(new FacetCount("Kent Beck", 3), index.facets(10).authors().get(0));
+    }
+
+    @Test
+    void facets_ShouldCountOnlyScopedBooks() {
+        Facets facets = index.facets(new long[] {1L, 3L, 99L}, 10);
+
+        assertEquals(2, facets.total());
+        assertEquals(2, facets.authors().size());
+        assertEquals(List.of(new FacetCount("2000s", 1), new FacetCount("2010s", 1)), facets.decades());
+    }
+
+    private static Book book(Long id, String author, int year) {
+        Book book = new Book("Title " + id, author, "9780000000000", year, null);
+        book.setId(id);
+        return book;
+    }
+}
@@ -0,0 +1,121 @@
+package com.library.online_library.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.library.online_library.model.Book;
+
+class FuzzyIndexTest {
+
+    private FuzzyIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new FuzzyIndex(2);
+        index.index(book(1L, "Java Concurrency in Practice", "Brian Goetz"));
+        index.index(book(2L, "Clean Code", "Robert C. Martin"));
+        index.index(book(3L, "Refactoring", "Martin Fowler"));
+        index.index(book(4L, "Design Patterns", "Erich Gamma"));
+    }
+
+    @Test
+    void search_ShouldMatchMisspelledAuthor() {
+        assertEquals(List.of(1L), index.search(null, "Getz", 10));
+    }
+
+    @Test
+    void search_ShouldFillLimitFromFilteredBooks() {
+        // Both Martins match; the closer one (id 2, exact) is filtered out, so the limit goes to the other.
+        assertEquals(List.of(3L), index.search(null, "martin", 1, bookId -> bookId != 2L));
+    }
+
+    @Test
+    void search_ShouldMatchTranspositionsAndMissingLetters() {
+        assertEquals(List.of(3L), index.search("Refactorign", null, 10));
+        assertEquals(List.of(4L), index.search("Desing Paterns", null, 10));
+    }
+
+    @Test
+    void search_ShouldRequireAllWordsAndIntersectFields() {
+        assertEquals(List.of(1L), index.search("concurency", "brain", 10));
+        assertTrue(index.search("concurency", "fowler", 10).isEmpty());
+    }
+
+    @Test
+    void search_ShouldRankCloserMatchesFirst() {
+        index.index(book(5L, "Clean Architecture", "Robert Martinez"));
+
+        assertEquals(List.of(2L, 3L, 5L), index.search(null, "martin", 10));
+    }
+
+    @Test
+    void search_ShouldNotTolerateTyposInVeryShortWords() {
+        assertTrue(index.search("Cl", null, 10).isEmpty());
+    }
+
+    @Test
+    void search_ShouldFollowUpdatesAndDeletes() {
+        index.index(book(2L, "Clean Architecture", "Robert C. Martin"));
+        index.remove(3L);
+
+        assertTrue(index.search("code", null, 10).isEmpty());
+        assertEquals(List.of(2L), index.search("architecure", null, 10));
+        assertEquals(List.of(2L), index.search(null, "martin", 10));
+    }
+
+    @Test
+    void search_ShouldKeepOnlyTheClosestMatches_WhenLimited() {
+        index.index(book(5L, "Clean Architecture", "Robert Martinez"));
+
+        assertEquals(List.of(2L, 3L), index.search(null, "martin", 2));
+    }
+
+    @Test
+    void search_ShouldHoldShortTermsToTheirOwnEditLimit() {
+        // "erich" only tolerates one edit, even though the longer query word allows two
+        assertTrue(index.search(null, "eriches", 10).isEmpty());
+        assertEquals(List.of(4L), index.search(null, "erich", 10));
+    }
+
+    @Test
+    void search_ShouldStayConsistent_AfterManyUpdatesAndDeletes() {
+        List<Long> expected = new ArrayList<>();
+        for (long id = 10; id < 60; id++) {
+            index.index(book(id, "Garden Notes", "Anna Smith"));
+        }
+        for (long id = 10; id < 60; id++) {
+            if (id % 3 == 0) {
+                index.remove(id);
+            } else if (id % 3 == 1) {
+                index.index(book(id, "Winter Notes", "Anna Smith"));
+            } else {
+                expected.add(id);
+            }
+        }
+
+        assertEquals(expected, index.search("garden", "smith", 100));
+    }
+
+    @Test
+    void remove_ShouldDropTermsThatNoBookUsesAnyMore() {
+        int vocabulary = index.vocabularySize();
+        index.index(book(5L, "Quantum Gardening", "Zed Quill"));
+        index.remove(5L);
+
+        assertEquals(vocabulary, index.vocabularySize());
+        assertTrue(index.search("quantum", null, 10).isEmpty());
+        index.index(book(6L, "Quantum Basics", "Zed Quill"));
+        assertEquals(List.of(6L), index.search("quantun", "quil", 10));
+    }
+
+    private static Book book(Long id, String title, String author) {
+        Book book = new Book(title, author, "9780000000000", 2000, null);
+        book.setId(id);
+        return book;
+    }
+}
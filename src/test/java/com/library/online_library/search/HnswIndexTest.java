@@ -0,0 +1,127 @@
+package com.library.online_library.search;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class HnswIndexTest {
+
+    private static final int DIMENSIONS = 16;
+
+    @Test
+    void search_ShouldFindExactMatchFirst() {
+        Random random = new Random(1);
+        HnswIndex index = new HnswIndex(DIMENSIONS, 8, 32, 1);
+        float[][] vectors = new float[500][];
+        for (int i = 0; i < vectors.length; i++) {
+            vectors[i] = randomUnitVector(random);
+            index.add(i, vectors[i]);
+        }
+
+        int exactFirst = 0;
+        for (int i = 0; i < vectors.length; i++) {
+            List<SearchHit> hits = index.search(vectors[i], 5, 32);
+            if (!hits.isEmpty() && hits.get(0).bookId() == i) {
+                exactFirst++;
+            }
+        }
+
+        assertTrue(exactFirst >= 495, "exact match ranked first for " + exactFirst + " of 500 queries");
+    }
+
+    @Test
+    void search_ShouldSkipRemovedAndReturnReplacedVectors() {
+        Random random = new Random(2);
+        HnswIndex index = new HnswIndex(DIMENSIONS, 8, 32, 1);
+        for (int i = 0; i < 100; i++) {
+            index.add(i, randomUnitVector(random));
+        }
+        float[] replacement = randomUnitVector(random);
+
+        index.remove(10);
+        index.add(20, replacement);
+
+        assertFalse(index.contains(10));
+        assertEquals(99, index.size());
+        assertEquals(20L, index.search(replacement, 1, 32).get(0).bookId());
+        assertTrue(index.search(replacement, 99, 200).stream().noneMatch(hit -> hit.bookId() == 10));
+    }
+
+    @Test
+    void add_ShouldReuseRemovedSlots_WhenVectorsAreReplaced() {
+        Random random = new Random(3);
+        HnswIndex index = new HnswIndex(DIMENSIONS, 8, 32, 1);
+        for (int i = 0; i < 200; i++) {
+            index.add(i, randomUnitVector(random));
+        }
+        float[][] latest = new float[200][];
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 200; i++) {
+                latest[i] = randomUnitVector(random);
+                index.add(i, latest[i]);
+            }
+        }
+
+        assertEquals(200, index.size());
+        assertTrue(index.nodeCount() <= 201, "graph holds " + index.nodeCount() + " slots for 200 vectors");
+        int exactFirst = 0;
+        for (int i = 0; i < 200; i++) {
+            if (index.search(latest[i], 1, 32).get(0).bookId() == i) {
+                exactFirst++;
+            }
+        }
+        assertTrue(exactFirst >= 195, "exact match ranked first for " + exactFirst + " of 200 queries");
+    }
+
+    @Test
+    void search_ShouldReturnKLiveHits_WhenTombstonesSurroundTheQuery() {
+        Random random = new Random(4);
+        HnswIndex index = new HnswIndex(DIMENSIONS, 8, 32, 1);
+        float[][] vectors = new float[500][];
+        for (int i = 0; i < vectors.length; i++) {
+            vectors[i] = randomUnitVector(random);
+            index.add(i, vectors[i]);
+        }
+        float[] query = vectors[0];
+        // Remove the 100 nearest neighbours of the query, so a plain beam of 10 sees only tombstones.
+        Integer[] byDistance = new Integer[vectors.length];
+        for (int i = 0; i < vectors.length; i++) {
+            byDistance[i] = i;
+        }
+        Arrays.sort(byDistance, (a, b) -> Float.compare(dot(query, vectors[b]), dot(query, vectors[a])));
+        for (int i = 0; i < 100; i++) {
+            index.remove(byDistance[i]);
+        }
+
+        List<SearchHit> hits = index.search(query, 10, 10);
+
+        assertEquals(10, hits.size());
+        assertTrue(hits.stream().allMatch(hit -> index.contains(hit.bookId())));
+    }
+
+    private static float dot(float[] a, float[] b) {
+        float dot = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+        }
+        return dot;
+    }
+
+    private static float[] randomUnitVector(Random random) {
+        float[] vector = new float[DIMENSIONS];
+        double norm = 0;
+        for (int i = 0; i < DIMENSIONS; i++) {
+            vector[i] = (float) random.nextGaussian();
+            norm += vector[i] * vector[i];
+        }
+        for (int i = 0; i < DIMENSIONS; i++) {
+            vector[i] /= (float) Math.sqrt(norm);
+        }
+        return vector;
+    }
+}
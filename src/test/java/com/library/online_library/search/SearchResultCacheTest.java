@@ -0,0 +1,67 @@
+package com.library.online_library.search;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.library.online_library.index.BookChangeEvent;
+
+class SearchResultCacheTest {
+
+    private SearchResultCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new SearchResultCache(2, 3);
+    }
+
+    @Test
+    void get_ShouldHitIgnoringCase() {
+        cache.put("Clean", null, cache.generation(), List.of(3L, 1L));
+
+        assertArrayEquals(new long[] {3L, 1L}, cache.get("clean", ""));
+        assertEquals(1, cache.stats().hits());
+    }
+
+    @Test
+    void get_ShouldMiss_AfterAnyWrite() {
+        cache.put("Clean", null, cache.generation(), List.of(1L));
+
+        cache.onBookChanged(BookChangeEvent.deleted(7L));
+
+        assertNull(cache.get("Clean", null));
+        assertEquals(0, cache.stats().entries());
+        assertEquals(0, cache.stats().estimatedBytes());
+    }
+
+    @Test
+    void put_ShouldDropResult_WhenWriteHappenedDuringQuery() {
+        long generation = cache.generation();
+        cache.onBookChanged(BookChangeEvent.deleted(7L));
+
+        cache.put("Clean", null, generation, List.of(1L));
+
+        assertNull(cache.get("Clean", null));
+    }
+
+    @Test
+    void put_ShouldEvictLeastRecentlyUsed_AndSkipLargeResults() {
+        long generation = cache.generation();
+        cache.put("a", null, generation, List.of(1L));
+        cache.put("b", null, generation, List.of(2L));
+        cache.get("a", null);
+        cache.put("c", null, generation, List.of(3L));
+        cache.put("d", null, generation, List.of(1L, 2L, 3L, 4L));
+
+        assertNull(cache.get("b", null));
+        assertNull(cache.get("d", null));
+        assertArrayEquals(new long[] {1L}, cache.get("a", null));
+        SearchCacheStats stats = cache.stats();
+        assertEquals(2, stats.entries());
+        assertEquals(2.0 / 4, stats.hitRate());
+    }
+}
@@ -0,0 +1,84 @@
+package com.library.online_library.search;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.library.online_library.model.Book;
+
+class SuggestionIndexTest {
+
+    private SuggestionIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SuggestionIndex(10);
+        index.clear();
+        index.index(book(1L, "Clean Code", "Robert C. Martin"));
+        index.index(book(2L, "Clean Architecture", "Robert C. Martin"));
+        index.index(book(3L, "Code Complete", "Steve McConnell"));
+        index.rebuildCompleted();
+    }
+
+    @Test
+    void suggest_ShouldRankByNumberOfBooks() {
+        List<Suggestion> suggestions = index.suggest("r", 10);
+
+        assertEquals(List.of(new Suggestion("Robert C. Martin", 2)), suggestions);
+    }
+
+    @Test
+    void suggest_ShouldIgnoreCaseAndPunctuation() {
+        assertEquals("Robert C. Martin", index.suggest("ROBERT C M", 10).get(0).text());
+        assertEquals(2, index.suggest("clean", 10).size());
+    }
+
+    @Test
+    void suggest_ShouldHonourLimit() {
+        assertEquals(1, index.suggest("c", 1).size());
+        assertEquals(3, index.suggest("c", 10).size());
+    }
+
+    @Test
+    void suggest_ShouldFollowWrites() {
+        index.index(book(4L, "Clean Agile", "Robert C. Martin"));
+        index.remove(3L);
+
+        assertEquals(3, index.suggest("rob", 10).get(0).weight());
+        assertTrue(index.suggest("code c", 10).isEmpty());
+        assertEquals(3, index.suggest("clean", 10).size());
+    }
+
+    @Test
+    void suggest_ShouldReturnEmpty_WhenNothingMatches() {
+        assertTrue(index.suggest("xyz", 10).isEmpty());
+        assertTrue(index.suggest("  ", 10).isEmpty());
+    }
+
+    @Test
+    void remove_ShouldReclaimEntries_OnceEnoughOfThemAreUnused() {
+        for (long id = 100; id < 2100; id++) {
+            index.index(book(id, "Temporary Title " + id, "Author " + id));
+        }
+        for (long id = 100; id < 2100; id++) {
+            index.remove(id);
+        }
+
+        assertTrue(index.entryCount() < 1024, "dead entries should be compacted: " + index.entryCount());
+        assertEquals(List.of(new Suggestion("Robert C. Martin", 2)), index.suggest("r", 10));
+        assertTrue(index.suggest("temporary", 10).isEmpty());
+
+        index.index(book(5000L, "Clean Coder", "Robert C. Martin"));
+        assertEquals(new Suggestion("Robert C. Martin", 3), index.suggest("rob", 10).get(0));
+        assertEquals(3, index.suggest("clean", 10).size());
+    }
+
+    private static Book book(Long id, String title, String author) {
+        Book book = new Book(title, author, "9780000000000", 2000, null);
+        book.setId(id);
+        return book;
+    }
+}
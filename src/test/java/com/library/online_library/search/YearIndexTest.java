@@ -0,0 +1,152 @@
+package com.library.online_library.search;
+
+import java.util.List;
+import java.util.Random;
+import java.util.function.LongPredicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.library.online_library.model.Book;
+
+class YearIndexTest {
+
+    private YearIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new YearIndex(2);
+        index.clear();
+        index.index(book(1L, 2008));
+        index.index(book(2L, 2017));
+        index.index(book(3L, 2018));
+        index.index(book(4L, 1999));
+        index.index(book(5L, 2017));
+        index.rebuildCompleted();
+    }
+
+    @Test
+    void query_ShouldReturnRangeOrderedByYear() {
+        YearRangeResult result = index.query(2000, 2017, false, null, 0, 10);
+
+        assertEquals(List.of(1L, 2L, 5L), result.bookIds());
+        assertEquals(3, result.total());
+    }
+
+    @Test
+    void query_ShouldPageInDescendingOrder() {
+        YearRangeResult result = index.query(Integer.MIN_VALUE, Integer.MAX_VALUE, true, null, 1, 2);
+
+        assertEquals(List.of(5L, 2L), result.bookIds());
+        assertEquals(5, result.total());
+    }
+
+    @Test
+    void query_ShouldIntersectWithRestrictedIds() {
+        YearRangeResult result = index.query(2000, 2020, true, List.of(1L, 3L, 4L), 0, 10);
+
+        assertEquals(List.of(3L, 1L), result.bookIds());
+        assertEquals(2, result.total());
+    }
+
+    @Test
+    void query_ShouldMergePendingChangesBeforeSnapshotRefresh() {
+        index.index(book(6L, 2010));
+        index.index(book(1L, 1990));
+
+        YearRangeResult result = index.query(2000, 2020, false, null, 0, 10);
+
+        assertEquals(List.of(6L, 2L, 5L, 3L), result.bookIds());
+        assertEquals(4, result.total());
+    }
+
+    @Test
+    void query_ShouldStayConsistentAcrossSnapshotRefresh() {
+        index.index(book(6L, 2010));
+        index.remove(2L);
+        index.index(book(7L, 2005));
+
+        YearRangeResult result = index.query(2000, 2020, false, null, 0, 10);
+
+        assertEquals(List.of(7L, 1L, 6L, 5L, 3L), result.bookIds());
+        assertEquals(5, result.total());
+    }
+
+    @Test
+    void query_ShouldStartAtOffset_WhenNothingIsPending() {
+        YearRangeResult result = index.query(2000, 2020, false, null, 2, 10);
+
+        assertEquals(List.of(5L, 3L), result.bookIds());
+        assertEquals(4, result.total());
+    }
+
+    @Test
+    void query_ShouldCountUnrestrictedRange_WhenPendingChangesMoveBooksInAndOut() {
+        index.remove(2L);
+        index.index(book(4L, 2012));
+
+        YearRangeResult result = index.query(2010, 2020, true, null, 1, 10);
+
+        assertEquals(List.of(5L, 4L), result.bookIds());
+        assertEquals(3, result.total());
+    }
+
+    @Test
+    void query_ShouldNotCountPendingChangesOutsideTheRestrictedIds() {
+        index.index(book(2L, 1980));
+
+        YearRangeResult result = index.query(2000, 2020, false, List.of(1L, 2L, 5L, 5L), 0, 10);
+
+        assertEquals(List.of(1L, 5L), result.bookIds());
+        assertEquals(2, result.total());
+    }
+
+    @Test
+    void publishedBetween_ShouldSeeWritesBeforeSnapshotRefresh() {
+        LongPredicate between = index.publishedBetween(2000, 2017);
+        index.index(book(4L, 2005));
+        index.remove(1L);
+
+        assertTrue(between.test(2L));
+        assertTrue(between.test(4L));
+        assertFalse(between.test(1L));
+        assertFalse(between.test(3L));
+    }
+
+    @Test
+    void query_ShouldPageAtAnyOffset_WhilePendingChangesAreMergedIn() {
+        YearIndex large = new YearIndex(1000);
+        large.clear();
+        Random random = new Random(5);
+        for (long id = 1; id <= 300; id++) {
+            large.index(book(id, 1990 + random.nextInt(30)));
+        }
+        large.rebuildCompleted();
+        for (int i = 0; i < 60; i++) {
+            long id = 1 + random.nextInt(320);
+            if (random.nextInt(4) == 0) {
+                large.remove(id);
+            } else {
+                large.index(book(id, 1990 + random.nextInt(30)));
+            }
+        }
+
+        for (boolean descending : new boolean[] {false, true}) {
+            List<Long> all = large.query(1995, 2012, descending, null, 0, Integer.MAX_VALUE).bookIds();
+            for (int offset = 0; offset <= all.size(); offset++) {
+                List<Long> expected = all.subList(offset, Math.min(offset + 7, all.size()));
+                assertEquals(expected, large.query(1995, 2012, descending, null, offset, 7).bookIds(),
+                        "offset " + offset + (descending ? " descending" : ""));
+            }
+        }
+    }
+
+    private static Book book(Long id, int year) {
+        Book book = new Book("Title " + id, "Author", "9780000000000", year, null);
+        book.setId(id);
+        return book;
+    }
+}
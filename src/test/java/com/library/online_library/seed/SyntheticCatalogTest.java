@@ -0,0 +1,77 @@
+package com.library.online_library.seed;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.library.online_library.model.Book;
+
+class SyntheticCatalogTest {
+
+    private final SyntheticCatalog catalog = new SyntheticCatalog(42, 1000, 1.07);
+
+    @Test
+    void book_ShouldBeDeterministic_ForSameSeedAndIndex() {
+        Book first = catalog.book(12345);
+        Book second = new SyntheticCatalog(42, 1000, 1.07).book(12345);
+
+        assertEquals(first.getTitle(), second.getTitle());
+        assertEquals(first.getAuthor(), second.getAuthor());
+        assertEquals(first.getIsbn(), second.getIsbn());
+        assertEquals(first.getPublicationYear(), second.getPublicationYear());
+    }
+
+    @Test
+    void book_ShouldRespectEntityConstraints() {
+        Set<Integer> titleLengths = new HashSet<>();
+        for (int i = 0; i < 20_000; i++) {
+            Book book = catalog.book(i);
+            assertTrue(!book.getTitle().isBlank() && book.getTitle().length() <= 50, book.getTitle());
+            assertTrue(book.getAuthor().length() <= 50, book.getAuthor());
+            assertTrue(book.getPublicationYear() >= 1000 && book.getPublicationYear() <= 2100);
+            assertTrue(book.getDescription() == null || book.getDescription().length() <= 100);
+            titleLengths.add(book.getTitle().length());
+        }
+        assertTrue(titleLengths.size() > 30, "title lengths should vary: " + titleLengths.size());
+    }
+
+    @Test
+    void isbn_ShouldBeUniqueAndValid() {
+        Set<String> isbns = new HashSet<>();
+        for (int i = 0; i < 100_000; i++) {
+            String isbn = SyntheticCatalog.isbn(i);
+            assertEquals(13, isbn.length());
+            assertTrue(isbn.startsWith("9791"), isbn);
+            assertEquals(SyntheticCatalog.checkDigit(isbn), isbn.charAt(12) - '0', isbn);
+            isbns.add(isbn);
+        }
+        assertEquals(100_000, isbns.size());
+        assertEquals(1, SyntheticCatalog.checkDigit("9780134685991"));
+    }
+
+    @Test
+    void book_ShouldSkewAuthorsTowardsTopRanks() {
+        Map<String, Integer> booksByAuthor = new HashMap<>();
+        int count = 50_000;
+        for (int i = 0; i < count; i++) {
+            booksByAuthor.merge(catalog.book(i).getAuthor(), 1, Integer::sum);
+        }
+        int topAuthorBooks = booksByAuthor.get(catalog.author(0));
+        int tenthAuthorBooks = booksByAuthor.get(catalog.author(9));
+
+        // Zipf with exponent ~1: rank 1 has about ten times the books of rank 10
+        assertTrue(topAuthorBooks > 5 * tenthAuthorBooks, topAuthorBooks + " vs " + tenthAuthorBooks);
+        assertTrue(topAuthorBooks > count / 20);
+    }
+
+    @Test
+    void constructor_ShouldReject_TooManyAuthors() {
+        assertThrows(IllegalArgumentException.class, () -> new SyntheticCatalog(42, 10_000_000, 1.0));
+    }
+}
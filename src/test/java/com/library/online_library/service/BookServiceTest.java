@@ -1,7 +1,11 @@
 package com.library.online_library.service;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.function.LongPredicate;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -11,28 +15,80 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 
+import com.library.online_library.datasource.ReadWriteRoutingDataSource;
 import com.library.online_library.exception.ResourceNotFoundException;
+import com.library.online_library.index.BookChangeEvent;
+import com.library.online_library.index.BookCounter;
 import com.library.online_library.model.Book;
 import com.library.online_library.repository.BookRepository;
+import com.library.online_library.search.Bm25Index;
+import com.library.online_library.search.FacetCount;
+import com.library.online_library.search.FacetIndex;
+import com.library.online_library.search.Facets;
+import com.library.online_library.search.FuzzyIndex;
+import com.library.online_library.search.SearchHit;
+import com.library.online_library.search.SearchResultCache;
+import com.library.online_library.search.SimilarBooksIndex;
+import com.library.online_library.search.Suggestion;
+import com.library.online_library.search.SuggestionIndex;
+import com.library.online_library.search.YearIndex;
+import com.library.online_library.search.YearRangeResult;
 
 class BookServiceTest {
 
     @Mock
     private BookRepository bookRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private Bm25Index bm25Index;
+
+    @Mock
+    private FuzzyIndex fuzzyIndex;
+
+    @Mock
+    private SuggestionIndex suggestionIndex;
+
+    @Mock
+    private SimilarBooksIndex similarBooksIndex;
+
+    @Mock
+    private FacetIndex facetIndex;
+
+    @Mock
+    private YearIndex yearIndex;
+
+    @Mock
+    private SearchResultCache searchResultCache;
+
+    @Mock
+    private BookCounter bookCounter;
+
+    @Mock
+    private ObjectProvider<ReadWriteRoutingDataSource> readRouting;
+
+    @Mock
+    private ReadWriteRoutingDataSource routingDataSource;
+
     @InjectMocks
     private BookService bookService;
 
@@ -59,6 +115,16 @@ class BookServiceTest {
         assertNotNull(savedBook);
         assertEquals("AI and Future", savedBook.getTitle());
         verify(bookRepository, times(1)).save(any(Book.class));
+        verify(eventPublisher, times(1)).publishEvent(BookChangeEvent.created(book));
+    }
+
+    @Test
+    void saveBook_ShouldPublishUpdate_WhenBookHasId() {
+        when(bookRepository.save(any(Book.class))).thenReturn(book);
+
+        bookService.saveBook(book);
+
+        verify(eventPublisher, times(1)).publishEvent(BookChangeEvent.updated(book));
     }
 
     @Test
@@ -99,6 +165,19 @@ class BookServiceTest {
         verify(bookRepository, times(1)).findAll(any(Pageable.class));
     }
 
+    @Test
+    void getAllBooks_ShouldUseCachedTotal_WhenCounterIsLoaded() {
+        Pageable pageable = PageRequest.of(0, 10);
+        when(bookCounter.total()).thenReturn(OptionalLong.of(42));
+        when(bookRepository.findAllBy(pageable)).thenReturn(new SliceImpl<>(List.of(book), pageable, true));
+
+        Page<Book> books = bookService.getAllBooks(pageable);
+
+        assertEquals(42, books.getTotalElements());
+        assertEquals(List.of(book), books.getContent());
+        verify(bookRepository, never()).findAll(any(Pageable.class));
+    }
+
     @Test
     void updateBook_ShouldReturnUpdatedBook_WhenBookExists() {
         when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
@@ -123,11 +202,21 @@ class BookServiceTest {
 
     @Test
     void deleteBook_ShouldCallRepositoryDelete() {
-        doNothing().when(bookRepository).deleteById(1L);
+        when(bookRepository.deleteBookById(1L)).thenReturn(1);
 
-        bookService.deleteBook(1L);
+        assertTrue(bookService.deleteBook(1L));
 
-        verify(bookRepository, times(1)).deleteById(1L);
+        verify(bookRepository, times(1)).deleteBookById(1L);
+        verify(eventPublisher, times(1)).publishEvent(BookChangeEvent.deleted(1L));
+    }
+
+    @Test
+    void deleteBook_ShouldNotPublish_WhenBookDoesNotExist() {
+        when(bookRepository.deleteBookById(1L)).thenReturn(0);
+
+        assertFalse(bookService.deleteBook(1L));
+
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
@@ -173,4 +262,194 @@ class BookServiceTest {
         assertEquals(1, books.size());
         verify(bookRepository, times(1)).findAll();
     }
+
+    @Test
+    void searchBooks_ShouldCacheIds_OnMiss() {
+        when(searchResultCache.generation()).thenReturn(4L);
+        when(bookRepository.findByTitleContainingIgnoreCase("AI")).thenReturn(List.of(book));
+
+        bookService.searchBooks("AI", null);
+
+        verify(searchResultCache, times(1)).put("AI", null, 4L, List.of(1L));
+    }
+
+    @Test
+    void searchBooks_ShouldNotCache_WhenReadFromReplica() {
+        when(readRouting.getIfAvailable()).thenReturn(routingDataSource);
+        when(routingDataSource.routesToReplica()).thenReturn(true);
+        when(bookRepository.findByTitleContainingIgnoreCase("AI")).thenReturn(List.of(book));
+
+        assertEquals(List.of(book), bookService.searchBooks("AI", null));
+
+        verify(searchResultCache, never()).put(any(), any(), anyLong(), any());
+    }
+
+    @Test
+    void searchBooks_ShouldSkipLikeScan_OnCacheHit() {
+        when(searchResultCache.get("AI", "Tech")).thenReturn(new long[] {1L});
+        when(bookRepository.findAllById(List.of(1L))).thenReturn(List.of(book));
+
+        List<Book> books = bookService.searchBooks("AI", "Tech");
+
+        assertEquals(List.of(book), books);
+        verify(bookRepository, never()).searchBooks(any(), any());
+    }
+
+    @Test
+    void searchBookIds_ShouldShareCache_WithoutLoadingEntities() {
+        when(searchResultCache.generation()).thenReturn(4L);
+        when(bookRepository.searchBookIds("AI", null)).thenReturn(List.of(1L));
+
+        assertEquals(List.of(1L), bookService.searchBookIds("AI", ""));
+
+        verify(searchResultCache, times(1)).put("AI", "", 4L, List.of(1L));
+        verify(bookRepository, never()).findByTitleContainingIgnoreCase(any());
+    }
+
+    @Test
+    void rankedSearch_ShouldReturnBooksInRelevanceOrder() {
+        Book other = new Book();
+        other.setId(2L);
+        other.setTitle("Future of Work");
+
+        when(bm25Index.search("future", 20, null)).thenReturn(List.of(new SearchHit(2L, 3.5f), new SearchHit(1L, 1.2f)));
+        when(bookRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(book, other));
+
+        List<Book> books = bookService.rankedSearch("future", 20);
+
+        assertEquals(2, books.size());
+        assertEquals(2L, books.get(0).getId());
+        assertEquals(1L, books.get(1).getId());
+    }
+
+    @Test
+    void rankedSearch_ShouldNotQueryRepository_WhenNothingMatches() {
+        when(bm25Index.search("nothing", 20, null)).thenReturn(List.of());
+
+        List<Book> books = bookService.rankedSearch("nothing", 20);
+
+        assertTrue(books.isEmpty());
+        verify(bookRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void rankedSearch_ShouldApplyYearRangeWhileRanking() {
+        LongPredicate between = bookId -> true;
+        when(yearIndex.publishedBetween(2000, Integer.MAX_VALUE)).thenReturn(between);
+        when(bm25Index.search("future", 20, between)).thenReturn(List.of(new SearchHit(1L, 1.2f)));
+        when(bookRepository.findAllById(List.of(1L))).thenReturn(List.of(book));
+
+        assertEquals(List.of(book), bookService.rankedSearch("future", 20, 2000, null));
+    }
+
+    @Test
+    void fuzzySearch_ShouldLoadBooksMatchedByFuzzyIndex() {
+        when(fuzzyIndex.search(null, "Tech Autor", 20, null)).thenReturn(List.of(1L));
+        when(bookRepository.findAllById(List.of(1L))).thenReturn(List.of(book));
+
+        List<Book> books = bookService.fuzzySearch(null, "Tech Autor", 20);
+
+        assertEquals(1, books.size());
+        assertEquals("Tech Author", books.get(0).getAuthor());
+        verify(bookRepository, never()).findByAuthorContainingIgnoreCase(any());
+    }
+
+    @Test
+    void suggest_ShouldCapLimitAndNotQueryRepository() {
+        when(suggestionIndex.suggest("ai", 100)).thenReturn(List.of(new Suggestion("AI and Future", 1)));
+
+        List<Suggestion> suggestions = bookService.suggest("ai", 1000);
+
+        assertEquals("AI and Future", suggestions.get(0).text());
+        verify(bookRepository, never()).findAll();
+    }
+
+    @Test
+    void findSimilarBooks_ShouldReturnBooksInSimilarityOrder() {
+        Book other = new Book();
+        other.setId(2L);
+        other.setTitle("AI Today");
+
+        when(similarBooksIndex.similarTo(1L, 5)).thenReturn(List.of(new SearchHit(2L, 0.9f)));
+        when(bookRepository.findAllById(List.of(2L))).thenReturn(List.of(other));
+
+        List<Book> books = bookService.findSimilarBooks(1L, 5);
+
+        assertEquals(1, books.size());
+        assertEquals("AI Today", books.get(0).getTitle());
+    }
+
+    @Test
+    void getFacets_ShouldUseCounters_WhenNoQuery() {
+        Facets facets = new Facets(1, List.of(new FacetCount("Tech Author", 1)), List.of(new FacetCount("2100s", 1)));
+        when(facetIndex.facets(10)).thenReturn(facets);
+
+        assertEquals(facets, bookService.getFacets(null, 10));
+        verify(bm25Index, never()).search(any(), anyInt());
+        verify(bookRepository, never()).findAll();
+    }
+
+    @Test
+    void getFacets_ShouldScopeToEveryMatch_WhenQueryGiven() {
+        Facets facets = new Facets(1, List.of(new FacetCount("Tech Author", 1)), List.of(new FacetCount("2100s", 1)));
+        long[] matches = {1L};
+        when(bm25Index.matchingBookIds("future")).thenReturn(matches);
+        when(facetIndex.facets(matches, 10)).thenReturn(facets);
+
+        assertEquals(facets, bookService.getFacets("future", 10));
+        verify(bm25Index, never()).search(any(), anyInt());
+    }
+
+    @Test
+    void getBooksByYear_ShouldPageFromYearIndex() {
+        Pageable pageable = PageRequest.of(1, 5);
+        when(yearIndex.query(2000, Integer.MAX_VALUE, true, null, 5, 5))
+                .thenReturn(new YearRangeResult(List.of(1L), 6));
+        when(bookRepository.findAllById(List.of(1L))).thenReturn(List.of(book));
+
+        Page<Book> result = bookService.getBooksByYear(2000, null, true, pageable);
+
+        assertEquals(List.of(book), result.getContent());
+        assertEquals(6, result.getTotalElements());
+    }
+
+    @Test
+    void filterByYear_ShouldKeepOnlyBooksReturnedByYearIndex() {
+        Book older = new Book();
+        older.setId(2L);
+        older.setPublicationYear(1999);
+        when(yearIndex.query(2000, 2100, false, Set.of(1L, 2L), 0, 2))
+                .thenReturn(new YearRangeResult(List.of(1L), 1));
+
+        assertEquals(List.of(book), bookService.filterByYear(List.of(book, older), 2000, 2100, false));
+        verify(bookRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void getAllBookFields_ShouldSelectColumns_AndReportNextPage() {
+        Pageable pageable = PageRequest.of(0, 1);
+        List<Map<String, Object>> rows = List.of(Map.of("id", 1L), Map.of("id", 2L));
+        when(bookRepository.findFields(List.of("id"), 0, 2)).thenReturn(rows);
+        when(bookCounter.total()).thenReturn(OptionalLong.of(2));
+
+        PageEnvelope<Map<String, Object>> envelope = bookService.getAllBookFields(List.of("id"), pageable, true);
+
+        assertEquals(List.of(Map.of("id", 1L)), envelope.content());
+        assertEquals(2L, envelope.totalElements());
+        assertTrue(envelope.hasNext());
+        verify(bookRepository, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void getBookFieldsByIds_ShouldWrapRowsInEnvelope() {
+        List<Map<String, Object>> rows = List.of(Map.of("id", 2L), Map.of("id", 1L));
+        when(bookRepository.findFieldsByIds(List.of("id"), List.of(2L, 1L))).thenReturn(rows);
+
+        PageEnvelope<Map<String, Object>> envelope = bookService.getBookFieldsByIds(List.of("id"), List.of(2L, 1L));
+
+        assertEquals(rows, envelope.content());
+        assertEquals(2L, envelope.totalElements());
+        assertFalse(envelope.hasNext());
+        verify(bookRepository, never()).findAllById(any());
+    }
 }
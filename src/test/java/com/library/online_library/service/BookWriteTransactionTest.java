@@ -0,0 +1,42 @@
+package com.library.online_library.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import com.library.online_library.model.Book;
+import com.library.online_library.model.BookChange;
+import com.library.online_library.repository.BookChangeRepository;
+import com.library.online_library.repository.BookRepository;
+
+@SpringBootTest(properties = "library.warmup.enabled=false")
+class BookWriteTransactionTest {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @MockitoSpyBean
+    private BookChangeRepository changeRepository;
+
+    @Test
+    void createBook_ShouldRollBack_WhenChangeLogInsertFails() {
+        doThrow(new DataIntegrityViolationException("book_changes insert failed"))
+                .when(changeRepository).save(any(BookChange.class));
+        long before = bookRepository.count();
+
+        assertThrows(DataIntegrityViolationException.class, () -> bookService.createBook(
+                new Book("Release It!", "Michael T. Nygard", "9781680502398", 2018, "Production-ready software.")));
+
+        assertEquals(before, bookRepository.count());
+        assertEquals(0, bookService.searchBooks("Release It", null).size());
+    }
+}
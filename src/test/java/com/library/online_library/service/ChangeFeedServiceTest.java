@@ -0,0 +1,219 @@
+package com.library.online_library.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.library.online_library.datasource.ReplicationStandIn;
+import com.library.online_library.index.BookChangeEvent;
+import com.library.online_library.model.Book;
+import com.library.online_library.model.BookChange;
+import com.library.online_library.repository.BookChangeRepository;
+
+class ChangeFeedServiceTest {
+
+    @Mock
+    private BookChangeRepository changeRepository;
+
+    @Mock
+    private ObjectProvider<ReplicationStandIn> replication;
+
+    private ChangeFeedService changeFeedService;
+
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        AtomicLong seq = new AtomicLong(100);
+        when(changeRepository.save(any(BookChange.class))).thenAnswer(invocation -> {
+            BookChange change = invocation.getArgument(0);
+            change.setSeq(seq.incrementAndGet());
+            return change;
+        });
+        // No transaction in these tests, so recorded changes are committed as soon as they are published
+        changeFeedService = new ChangeFeedService(changeRepository, event -> {
+            if (event instanceof BookChangeRecorded recorded) {
+                changeFeedService.onChangeCommitted(recorded);
+            }
+        }, 2, 1000, 100, replication);
+
+        book = new Book();
+        book.setId(1L);
+        book.setVersion(3L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        changeFeedService.shutdown();
+    }
+
+    @Test
+    void onBookChanged_ShouldPersistOperationAndVersion() {
+        changeFeedService.onBookChanged(BookChangeEvent.updated(book));
+        changeFeedService.onBookChanged(BookChangeEvent.deleted(1L));
+
+        ChangeBatch batch = changeFeedService.getChangesSince(100, 10);
+
+        assertEquals(2, batch.changes().size());
+        assertEquals(BookChange.Operation.UPDATED, batch.changes().get(0).getOperation());
+        assertEquals(3L, batch.changes().get(0).getVersion());
+        assertNull(batch.changes().get(1).getVersion());
+        assertEquals(102, batch.nextSince());
+        assertFalse(batch.hasMore());
+    }
+
+    @Test
+    void onBookChanged_ShouldBufferChange_OnlyAfterCommit() {
+        List<BookChangeRecorded> recorded = new ArrayList<>();
+        ChangeFeedService transactional = new ChangeFeedService(changeRepository, event -> {
+            if (event instanceof BookChangeRecorded change) {
+                recorded.add(change);
+            }
+        }, 2, 1000, 100, replication);
+        when(changeRepository.findBySeqGreaterThanOrderBySeqAsc(any(), any(Pageable.class))).thenReturn(List.of());
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            transactional.onBookChanged(BookChangeEvent.updated(book));
+
+            assertTrue(transactional.getChangesSince(0, 10).changes().isEmpty());
+            verify(changeRepository).save(any(BookChange.class));
+
+            // What the transaction manager does on commit: after-commit listeners, then completion callbacks
+            transactional.onChangeCommitted(recorded.get(0));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+            transactional.shutdown();
+        }
+
+        assertEquals(101L, transactional.getChangesSince(100, 10).changes().get(0).getSeq());
+    }
+
+    @Test
+    void onChangeCommitted_ShouldHoldBackLaterSeq_UntilEarlierOneSettles() {
+        List<BookChangeRecorded> recorded = new ArrayList<>();
+        ChangeFeedService transactional = new ChangeFeedService(changeRepository, event -> {
+            if (event instanceof BookChangeRecorded change) {
+                recorded.add(change);
+            }
+        }, 10, 1000, 100, replication);
+        when(changeRepository.findBySeqGreaterThanOrderBySeqAsc(any(), any(Pageable.class)))
+                .thenAnswer(invocation -> recorded.stream().skip(1).map(BookChangeRecorded::change).toList());
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            transactional.onBookChanged(BookChangeEvent.created(book));
+            transactional.onBookChanged(BookChangeEvent.updated(book));
+
+            // The second writer commits first; its row is in the database but seq 101 may still commit
+            transactional.onChangeCommitted(recorded.get(1));
+            assertTrue(transactional.getChangesSince(100, 10).changes().isEmpty());
+
+            transactional.onChangeCommitted(recorded.get(0));
+            assertEquals(List.of(101L, 102L), transactional.getChangesSince(100, 10).changes().stream()
+                    .map(BookChange::getSeq).toList());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+            transactional.shutdown();
+        }
+    }
+
+    @Test
+    void onBookChanged_ShouldPublishLaterCommits_WhenEarlierWriteRollsBack() {
+        List<BookChangeRecorded> recorded = new ArrayList<>();
+        ChangeFeedService transactional = new ChangeFeedService(changeRepository, event -> {
+            if (event instanceof BookChangeRecorded change) {
+                recorded.add(change);
+            }
+        }, 10, 1000, 100, replication);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            transactional.onBookChanged(BookChangeEvent.created(book));
+            List<TransactionSynchronization> firstWrite = TransactionSynchronizationManager.getSynchronizations();
+            transactional.onBookChanged(BookChangeEvent.updated(book));
+            transactional.onChangeCommitted(recorded.get(1));
+
+            firstWrite.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+            assertEquals(List.of(102L), transactional.getChangesSince(101, 10).changes().stream()
+                    .map(BookChange::getSeq).toList());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+            transactional.shutdown();
+        }
+    }
+
+    @Test
+    void subscribe_ShouldDropSubscriber_WhoseQueueIsFull() {
+        ChangeFeedService unbuffered = new ChangeFeedService(changeRepository, event -> {
+        }, 2, 1000, 0, replication);
+        try {
+            unbuffered.subscribe(0);
+            assertEquals(1, unbuffered.subscriberCount());
+
+            unbuffered.onBookChanged(BookChangeEvent.created(book));
+            unbuffered.onChangeCommitted(new BookChangeRecorded(changeOf(101L)));
+
+            assertEquals(0, unbuffered.subscriberCount());
+        } finally {
+            unbuffered.shutdown();
+        }
+    }
+
+    @Test
+    void getChangesSince_ShouldServeFromBuffer_WithoutDatabase() {
+        changeFeedService.onBookChanged(BookChangeEvent.created(book));
+        changeFeedService.onBookChanged(BookChangeEvent.updated(book));
+
+        ChangeBatch batch = changeFeedService.getChangesSince(101, 1);
+
+        assertEquals(102L, batch.changes().get(0).getSeq());
+        assertFalse(batch.hasMore());
+        verify(changeRepository, never()).findBySeqGreaterThanOrderBySeqAsc(any(), any(Pageable.class));
+    }
+
+    @Test
+    void getChangesSince_ShouldReadDatabase_WhenChangesWereEvicted() {
+        changeFeedService.onBookChanged(BookChangeEvent.created(book));
+        changeFeedService.onBookChanged(BookChangeEvent.updated(book));
+        changeFeedService.onBookChanged(BookChangeEvent.updated(book));
+        BookChange evicted = new BookChange(1L, BookChange.Operation.CREATED, 0L, null);
+        evicted.setSeq(101L);
+        BookChange next = new BookChange(1L, BookChange.Operation.UPDATED, 1L, null);
+        next.setSeq(102L);
+        when(changeRepository.findBySeqGreaterThanOrderBySeqAsc(100L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(evicted, next));
+
+        ChangeBatch batch = changeFeedService.getChangesSince(100, 1);
+
+        assertEquals(List.of(evicted), batch.changes());
+        assertTrue(batch.hasMore());
+        assertEquals(101, batch.nextSince());
+    }
+
+    private static BookChange changeOf(long seq) {
+        BookChange change = new BookChange(1L, BookChange.Operation.CREATED, 0L, null);
+        change.setSeq(seq);
+        return change;
+    }
+}
@@ -0,0 +1,56 @@
+package com.library.online_library.storage;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class StorageSnapshotsTest {
+
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("snapshots");
+    }
+
+    @Test
+    void restore_ShouldReplaceDatabaseFiles() throws IOException {
+        Path snapshot = zip("librarydb.mv.db", "fresh");
+        Path data = directory.resolve("data");
+        Files.createDirectories(data);
+        Files.writeString(data.resolve("librarydb.mv.db"), "stale");
+
+        int restored = StorageSnapshots.restore(snapshot, data);
+
+        assertEquals(1, restored);
+        assertEquals("fresh", Files.readString(data.resolve("librarydb.mv.db")));
+        assertFalse(Files.exists(data.resolve("librarydb.mv.db.restoring")));
+    }
+
+    @Test
+    void restore_ShouldReject_EntriesOutsideTheDirectory() throws IOException {
+        Path snapshot = zip("../escape.mv.db", "x");
+
+        assertThrows(IOException.class, () -> StorageSnapshots.restore(snapshot, directory.resolve("data")));
+        assertFalse(Files.exists(directory.resolve("escape.mv.db")));
+    }
+
+    private Path zip(String entryName, String content) throws IOException {
+        Path snapshot = directory.resolve("snapshot.zip");
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(snapshot))) {
+            zip.putNextEntry(new ZipEntry(entryName));
+            zip.write(content.getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+        return snapshot;
+    }
+}
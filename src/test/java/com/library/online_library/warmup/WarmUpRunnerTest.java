@@ -0,0 +1,141 @@
+package com.library.online_library.warmup;
+
+import java.sql.Connection;
+import java.util.List;
+import java.util.Optional;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import org.mockito.Mock;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.online_library.model.Book;
+import com.library.online_library.service.BookService;
+
+class WarmUpRunnerTest {
+
+    @Mock
+    private BookService bookService;
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    private Book book;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        book = new Book("Clean Code", "Robert C. Martin", "9780132350884", 2008, "A handbook");
+        book.setId(1L);
+        when(dataSource.getConnection()).thenReturn(connection);
+        // A real page request: Jackson reads the offset, which an unpaged page refuses to report
+        when(bookService.getAllBooks(any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(book), PageRequest.of(0, 10), 1));
+        when(bookService.getBookById(1L)).thenReturn(Optional.of(book));
+        when(bookService.getBooksByYear(any(), any(), anyBoolean(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(book), PageRequest.of(0, 10), 1));
+    }
+
+    @Test
+    void run_ShouldExerciseReadPaths_AndPrimeConnections() throws Exception {
+        WarmUpRunner runner = new WarmUpRunner(bookService, new ObjectMapper(), dataSource, true, 3, 10_000, 2, false);
+        WarmUpHealthIndicator indicator = new WarmUpHealthIndicator(runner);
+        assertEquals(Status.OUT_OF_SERVICE, indicator.health().getStatus());
+
+        runner.run();
+
+        assertTrue(runner.isCompleted());
+        assertEquals(3, runner.getCompletedIterations());
+        assertEquals(Status.UP, indicator.health().getStatus());
+        verify(connection, times(2)).close();
+        verify(bookService, times(3)).rankedSearch("Clean Code", 20);
+        verify(bookService, never()).createBook(any());
+    }
+
+    @Test
+    void run_ShouldStopAtTimeBudget_AndStillBecomeReady() {
+        WarmUpRunner runner = new WarmUpRunner(bookService, new ObjectMapper(), dataSource, true, 1_000_000, 0, 1, false);
+
+        runner.run();
+
+        assertTrue(runner.isCompleted());
+        assertEquals(0, runner.getCompletedIterations());
+        verify(bookService, never()).suggest(any(), anyInt());
+    }
+
+    @Test
+    void run_ShouldEndEarly_AndStillBecomeReady_WhenSerializationFails() throws Exception {
+        ObjectMapper objectMapper = mock(ObjectMapper.class);
+        when(objectMapper.writeValueAsBytes(any())).thenThrow(new JsonProcessingException("not serializable") {
+        });
+        WarmUpRunner runner = new WarmUpRunner(bookService, objectMapper, dataSource, true, 3, 10_000, 1, false);
+        WarmUpHealthIndicator indicator = new WarmUpHealthIndicator(runner);
+
+        runner.run();
+
+        assertTrue(runner.isCompleted());
+        assertEquals(0, runner.getCompletedIterations());
+        assertEquals(Status.UP, indicator.health().getStatus());
+        verify(bookService, never()).rankedSearch(any(), anyInt());
+    }
+
+    @Test
+    void run_ShouldWaitForBackgroundSeeding_BeforeSamplingTheCatalog() throws Exception {
+        WarmUpRunner runner = new WarmUpRunner(bookService, new ObjectMapper(), dataSource, true, 3, 10_000, 1, true);
+        Thread warmUp = new Thread(runner::run);
+        warmUp.start();
+
+        warmUp.join(200);
+        assertFalse(runner.isCompleted());
+        verify(bookService, never()).getAllBooks(any(Pageable.class));
+
+        runner.onSampleDataSeeded();
+        warmUp.join(5_000);
+
+        assertTrue(runner.isCompleted());
+        assertEquals(3, runner.getCompletedIterations());
+    }
+
+    @Test
+    void run_ShouldSkipAndStillBecomeReady_WhenBackgroundSeedingOutlastsTheBudget() {
+        WarmUpRunner runner = new WarmUpRunner(bookService, new ObjectMapper(), dataSource, true, 3, 50, 1, true);
+
+        runner.run();
+
+        assertTrue(runner.isCompleted());
+        assertEquals(0, runner.getCompletedIterations());
+        verify(bookService, never()).getAllBooks(any(Pageable.class));
+    }
+
+    @Test
+    void onApplicationReady_ShouldReportReady_WhenDisabled() {
+        WarmUpRunner runner = new WarmUpRunner(bookService, new ObjectMapper(), dataSource, false, 10, 10_000, 1, false);
+        assertFalse(runner.isCompleted());
+
+        runner.onApplicationReady();
+
+        assertTrue(runner.isCompleted());
+    }
+}